@@ -0,0 +1,47 @@
+package com.travel.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * キャッシュ値のバイナリ符号化方式
+ *
+ * 型ごとにフィールドを決まった順序で書き出し、クラス名などの型情報は含めません。
+ * フィールド構成を変えるときはスキーマのバージョンを上げ、{@link #read} で
+ * 旧バージョンを読めるようにするか、読めない場合は例外を投げます
+ * （Redis上の旧形式のエントリはキャッシュミスとして扱われます）。
+ *
+ * @param <T> 値の型
+ * @author Travel System
+ * @version 1.0
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * @return 値の型
+     */
+    Class<T> type();
+
+    /**
+     * @return 現在のスキーマのバージョン
+     */
+    int schemaVersion();
+
+    /**
+     * 値を書き出します。
+     *
+     * @param value 値（nullは渡されません）
+     * @param out 出力先
+     */
+    void write(T value, DataOutput out) throws IOException;
+
+    /**
+     * 値を読み込みます。
+     *
+     * @param schemaVersion 書き出されたときのスキーマのバージョン
+     * @param in 入力元
+     * @return 値
+     */
+    T read(int schemaVersion, DataInput in) throws IOException;
+}
@@ -0,0 +1,287 @@
+package com.travel.cache;
+
+import com.travel.dto.TourViewDto;
+import com.travel.entity.Destination;
+import com.travel.entity.Tour;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * キャッシュ値のバイナリ符号化方式の定義
+ *
+ * ツアー表示用DTO・目的地・ID一覧の符号化方式を提供します。
+ * 列挙値は名前で保存するため、定数の並び替えではスキーマのバージョンを上げる必要はありません。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public final class CacheCodecs {
+
+    /** ツアー表示用DTO */
+    public static final BinaryCodec<TourViewDto> TOUR_VIEW = new TourViewCodec();
+
+    /** 目的地（関連するツアーは含めない） */
+    public static final BinaryCodec<Destination> DESTINATION = new DestinationCodec();
+
+    /** ID一覧（差分の可変長整数で保存する） */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static final BinaryCodec<List<Long>> ID_LIST = (BinaryCodec) new IdListCodec();
+
+    private CacheCodecs() {
+    }
+
+    private static final class TourViewCodec implements BinaryCodec<TourViewDto> {
+
+        @Override
+        public Class<TourViewDto> type() {
+            return TourViewDto.class;
+        }
+
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void write(TourViewDto tour, DataOutput out) throws IOException {
+            writeLong(out, tour.getId());
+            writeString(out, tour.getName());
+            writeString(out, tour.getDescription());
+            writeDecimal(out, tour.getPrice());
+            writeInt(out, tour.getDuration());
+            writeInt(out, tour.getMaxCapacity());
+            writeInt(out, tour.getCurrentCapacity());
+            writeDate(out, tour.getStartDate());
+            writeDate(out, tour.getEndDate());
+            writeEnum(out, tour.getType());
+            writeEnum(out, tour.getStatus());
+            writeString(out, tour.getImageUrl());
+            writeLong(out, tour.getDestinationId());
+            writeString(out, tour.getDestinationName());
+            writeString(out, tour.getDestinationCountry());
+            writeString(out, tour.getDestinationCity());
+        }
+
+        @Override
+        public TourViewDto read(int schemaVersion, DataInput in) throws IOException {
+            requireVersion(this, schemaVersion);
+            return new TourViewDto(readLong(in), readString(in), readString(in), readDecimal(in), readInt(in),
+                    readInt(in), readInt(in), readDate(in), readDate(in), readEnum(in, Tour.TourType.class),
+                    readEnum(in, Tour.TourStatus.class), readString(in), readLong(in), readString(in),
+                    readString(in), readString(in));
+        }
+    }
+
+    private static final class DestinationCodec implements BinaryCodec<Destination> {
+
+        @Override
+        public Class<Destination> type() {
+            return Destination.class;
+        }
+
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void write(Destination destination, DataOutput out) throws IOException {
+            writeLong(out, destination.getId());
+            writeString(out, destination.getName());
+            writeString(out, destination.getDescription());
+            writeString(out, destination.getCountry());
+            writeString(out, destination.getCity());
+            writeString(out, destination.getRegion());
+            writeEnum(out, destination.getType());
+            out.writeBoolean(destination.isActive());
+            writeString(out, destination.getImageUrl());
+            writeDateTime(out, destination.getCreatedAt());
+            writeDateTime(out, destination.getUpdatedAt());
+        }
+
+        @Override
+        public Destination read(int schemaVersion, DataInput in) throws IOException {
+            requireVersion(this, schemaVersion);
+            Destination destination = new Destination();
+            destination.setId(readLong(in));
+            destination.setName(readString(in));
+            destination.setDescription(readString(in));
+            destination.setCountry(readString(in));
+            destination.setCity(readString(in));
+            destination.setRegion(readString(in));
+            destination.setType(readEnum(in, Destination.DestinationType.class));
+            destination.setActive(in.readBoolean());
+            destination.setImageUrl(readString(in));
+            destination.setCreatedAt(readDateTime(in));
+            destination.setUpdatedAt(readDateTime(in));
+            return destination;
+        }
+    }
+
+    private static final class IdListCodec implements BinaryCodec<List<?>> {
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Class<List<?>> type() {
+            return (Class) List.class;
+        }
+
+        @Override
+        public int schemaVersion() {
+            return 1;
+        }
+
+        @Override
+        public void write(List<?> ids, DataOutput out) throws IOException {
+            writeVarLong(out, ids.size());
+            long previous = 0;
+            for (Object id : ids) {
+                long value = ((Number) id).longValue();
+                // Zigzag-encoded deltas stay short for mostly ascending ids
+                long delta = value - previous;
+                writeVarLong(out, (delta << 1) ^ (delta >> 63));
+                previous = value;
+            }
+        }
+
+        @Override
+        public List<?> read(int schemaVersion, DataInput in) throws IOException {
+            requireVersion(this, schemaVersion);
+            int size = (int) readVarLong(in);
+            List<Long> ids = new ArrayList<>(size);
+            long previous = 0;
+            for (int i = 0; i < size; i++) {
+                long zigzag = readVarLong(in);
+                previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                ids.add(previous);
+            }
+            return ids;
+        }
+    }
+
+    private static void requireVersion(BinaryCodec<?> codec, int schemaVersion) throws IOException {
+        if (schemaVersion != codec.schemaVersion()) {
+            throw new IOException("Unsupported schema version " + schemaVersion + " for "
+                    + codec.type().getSimpleName());
+        }
+    }
+
+    // Nullable fields are prefixed with a presence flag
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(out, value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? readVarLong(in) : null;
+    }
+
+    private static void writeInt(DataOutput out, Integer value) throws IOException {
+        writeLong(out, value != null ? value.longValue() : null);
+    }
+
+    private static Integer readInt(DataInput in) throws IOException {
+        Long value = readLong(in);
+        return value != null ? value.intValue() : null;
+    }
+
+    private static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            out.writeByte(value.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeDate(DataOutput out, LocalDate value) throws IOException {
+        writeLong(out, value != null ? value.toEpochDay() : null);
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        Long epochDay = readLong(in);
+        return epochDay != null ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    private static void writeDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeVarLong(out, value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(out, value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = readVarLong(in);
+        return LocalDateTime.ofEpochSecond(epochSecond, (int) readVarLong(in), ZoneOffset.UTC);
+    }
+
+    private static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        writeString(out, value != null ? value.name() : null);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInput in, Class<E> type) throws IOException {
+        String name = readString(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    /**
+     * 7ビットずつの可変長で書き出します（小さい非負の値ほど短くなります）。
+     */
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,120 @@
+package com.travel.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * キャッシュ無効化の通知経路（Redis Pub/Sub）
+ *
+ * あるノードでキャッシュの更新・削除が行われたとき、他のノードのローカルキャッシュから
+ * 同じキーを破棄するよう通知します。自ノードが送信した通知は受信側で無視します。
+ *
+ * 通知の形式は「送信元ノードID|キャッシュ名|K|キー」（キー単位）または
+ * 「送信元ノードID|キャッシュ名|C|」（キャッシュ全体）です。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final String SEPARATOR = "|";
+
+    private static final String KEY = "K";
+
+    private static final String CLEAR = "C";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String channel;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Handler handler = new Handler() {
+        @Override
+        public void evict(String cacheName, String key) {
+        }
+
+        @Override
+        public void clear(String cacheName) {
+        }
+    };
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    /**
+     * 受信した通知の処理先を設定します。
+     *
+     * @param handler 通知の処理先
+     */
+    public void subscribe(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @return 購読するチャネル名
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * キー単位の無効化を通知します。
+     *
+     * @param cacheName キャッシュ名
+     * @param key キャッシュキー
+     */
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName + SEPARATOR + KEY + SEPARATOR + key);
+    }
+
+    /**
+     * キャッシュ全体の無効化を通知します。
+     *
+     * @param cacheName キャッシュ名
+     */
+    public void publishClear(String cacheName) {
+        publish(cacheName + SEPARATOR + CLEAR + SEPARATOR);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        if (CLEAR.equals(parts[2])) {
+            handler.clear(parts[1]);
+        } else {
+            handler.evict(parts[1], parts[3]);
+        }
+    }
+
+    private void publish(String body) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + SEPARATOR + body);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the local TTL for this entry
+            log.warn("Failed to publish cache invalidation on {}", channel, e);
+        }
+    }
+
+    /**
+     * 受信した通知の処理先
+     */
+    public interface Handler {
+        void evict(String cacheName, String key);
+
+        void clear(String cacheName);
+    }
+}
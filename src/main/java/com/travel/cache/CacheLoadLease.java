@@ -0,0 +1,89 @@
+package com.travel.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * キャッシュミス時の読み込み権（Redis上のリース）
+ *
+ * キャッシュのキーごとに期限付きのリースをRedisに置き、クラスタ全体で
+ * 同じキーをデータベースから読み込むノードを1つに絞ります。
+ * リースを取れなかったノードは、保持しているノードがRedisに値を書き込むのを待ちます。
+ * 保持したノードが停止した場合も、リースは期限で自動的に外れます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public class CacheLoadLease {
+
+    private static final String KEY_PREFIX = "travel:cache:lease:";
+
+    /** 自分のトークンの場合だけ削除する（期限切れ後に他ノードが取ったリースを消さない） */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Duration ttl;
+
+    private final Duration pollInterval;
+
+    /**
+     * @param redisTemplate Redisテンプレート
+     * @param ttl リースの期限（他ノードが値を待つ最大時間も兼ねる）
+     * @param pollInterval 値を待つ間のRedisの確認間隔
+     */
+    public CacheLoadLease(StringRedisTemplate redisTemplate, Duration ttl, Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * リースの取得を試みます。
+     *
+     * @param cacheName キャッシュ名
+     * @param key キャッシュキーの文字列表現
+     * @return 取得できた場合は解放に使うトークン、他ノードが保持している場合はnull
+     */
+    public String tryAcquire(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey(cacheName, key), token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * リースを解放します。
+     *
+     * @param cacheName キャッシュ名
+     * @param key キャッシュキーの文字列表現
+     * @param token 取得時のトークン
+     */
+    public void release(String cacheName, String key, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(cacheName, key)), token);
+    }
+
+    /**
+     * 他ノードの読み込みを待つ間、確認間隔だけ待機します。
+     */
+    public void pause() throws InterruptedException {
+        Thread.sleep(pollInterval.toMillis());
+    }
+
+    /**
+     * @return リースの期限
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private static String leaseKey(String cacheName, String key) {
+        return KEY_PREFIX + cacheName + "::" + key;
+    }
+}
@@ -0,0 +1,32 @@
+package com.travel.cache;
+
+/**
+ * キャッシュ名の定義
+ *
+ * エンティティはIDごとに1エントリとして保持し、一覧や検索の結果は
+ * 問い合わせごとのID一覧として別のキャッシュに保持します。
+ * 更新時は該当IDのエントリと、ID一覧のキャッシュだけを破棄します。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public final class CacheNames {
+
+    /** ツアー（ID → ツアー表示用DTO） */
+    public static final String TOURS = "tours";
+
+    /** ツアーの一覧・検索結果（問い合わせ → ツアーID一覧） */
+    public static final String TOUR_QUERIES = "tourQueries";
+
+    /** 目的地（ID → 目的地） */
+    public static final String DESTINATIONS = "destinations";
+
+    /** 目的地の一覧・検索結果（問い合わせ → 目的地ID一覧） */
+    public static final String DESTINATION_QUERIES = "destinationQueries";
+
+    /** ユーザー */
+    public static final String USERS = "users";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,140 @@
+package com.travel.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * コンパクトなバイナリ形式のRedisシリアライザー
+ *
+ * 値を {@link BinaryCodec} で符号化し、先頭に2バイトのヘッダー
+ * （フラグ、スキーマのバージョン）を付けて保存します。
+ * 符号化後のサイズがしきい値以上の場合は、Deflate（最速レベル）で圧縮します。
+ *
+ * @param <T> 値の型
+ * @author Travel System
+ * @version 1.0
+ */
+public class CompactRedisSerializer<T> implements RedisSerializer<Object> {
+
+    private static final int FLAG_COMPRESSED = 0x01;
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final BinaryCodec<T> codec;
+
+    private final int compressionThreshold;
+
+    /**
+     * @param codec 値の符号化方式
+     * @param compressionThreshold 圧縮するサイズの下限（バイト、0以下の場合は圧縮しない）
+     */
+    public CompactRedisSerializer(BinaryCodec<T> codec, int compressionThreshold) {
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!codec.type().isInstance(value)) {
+            throw new SerializationException("Cannot serialize " + value.getClass().getName()
+                    + " with the codec for " + codec.type().getName());
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            codec.write(codec.type().cast(value), new DataOutputStream(buffer));
+            byte[] payload = buffer.toByteArray();
+
+            boolean compress = compressionThreshold > 0 && payload.length >= compressionThreshold;
+            byte[] body = compress ? deflate(payload) : payload;
+            byte[] result = new byte[body.length + 2];
+            result[0] = (byte) (compress ? FLAG_COMPRESSED : 0);
+            result[1] = (byte) codec.schemaVersion();
+            System.arraycopy(body, 0, result, 2, body.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize " + codec.type().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < 2) {
+            throw new SerializationException("Truncated cache value");
+        }
+        try {
+            int flags = bytes[0] & 0xFF;
+            int schemaVersion = bytes[1] & 0xFF;
+            byte[] payload = (flags & FLAG_COMPRESSED) != 0
+                    ? inflate(bytes, 2)
+                    : Arrays.copyOfRange(bytes, 2, bytes.length);
+            return codec.read(schemaVersion, new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Failed to deserialize " + codec.type().getName(), e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return codec.type();
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+            // The uncompressed length lets the reader size its buffer exactly
+            new DataOutputStream(out).writeInt(payload.length);
+            byte[] chunk = new byte[Math.max(Math.min(payload.length, 8192), 64)];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Failed to compress cache value", e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes, int offset) throws IOException, DataFormatException {
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes, offset, 4));
+        byte[] payload = new byte[header.readInt()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset + 4, bytes.length - offset - 4);
+            int length = 0;
+            while (length < payload.length && !inflater.finished()) {
+                int read = inflater.inflate(payload, length, payload.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed cache value");
+                }
+                length += read;
+            }
+            if (length < payload.length) {
+                throw new DataFormatException("Truncated compressed cache value");
+            }
+            return payload;
+        } finally {
+            inflater.end();
+        }
+    }
+}
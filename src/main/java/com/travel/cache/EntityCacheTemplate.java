@@ -0,0 +1,162 @@
+package com.travel.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * IDごとのエンティティキャッシュの操作
+ *
+ * エンティティをIDごとのエントリとして読み書きし、一覧の取得では
+ * キャッシュにないIDだけを1回の問い合わせでまとめて読み込みます。
+ * 一覧や検索の結果はID一覧として保持し、要素の実体はIDごとのエントリから組み立てます。
+ * キャッシュミス時の読み込みはキーごとに集約されるため、有効期限切れの直後に
+ * 同時に届いた要求でも同じIDの読み込みは1回だけ行われます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Component
+public class EntityCacheTemplate {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * IDに対応するエントリを返します。キャッシュにない場合は読み込んで登録します。
+     *
+     * @param cacheName キャッシュ名
+     * @param id ID
+     * @param loader キャッシュにない場合の読み込み処理
+     * @return エントリ、存在しない場合は空
+     */
+    public <T> Optional<T> get(String cacheName, Long id, Function<Long, Optional<T>> loader) {
+        try {
+            return Optional.ofNullable(cache(cacheName).get(id, () -> loader.apply(id).orElse(null)));
+        } catch (Cache.ValueRetrievalException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * ID一覧に対応するエントリを同じ順序で返します。キャッシュにないIDはまとめて読み込んで登録します。
+     *
+     * @param cacheName キャッシュ名
+     * @param ids ID一覧
+     * @param loader キャッシュにないIDの一括読み込み処理
+     * @param idOf エントリからIDを取り出す関数
+     * @return エントリの一覧（存在しないIDは除く）
+     */
+    public <T> List<T> getAll(String cacheName, List<Long> ids, Function<Collection<Long>, List<T>> loader,
+                              Function<T, Long> idOf) {
+        Cache cache = cache(cacheName);
+        if (cache instanceof TwoTierCache twoTierCache) {
+            Map<Long, T> found = twoTierCache.getAll(ids, missing -> loader.apply(missing).stream()
+                    .collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first)));
+            return ids.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        Map<Long, T> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            @SuppressWarnings("unchecked")
+            T cached = (T) valueOf(cache.get(id));
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (T value : loader.apply(missing)) {
+                Long id = idOf.apply(value);
+                cache.put(id, value);
+                found.put(id, value);
+            }
+        }
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * 問い合わせ結果のID一覧を返します。キャッシュにない場合は問い合わせて登録します。
+     *
+     * @param cacheName キャッシュ名
+     * @param queryKey 問い合わせを識別するキー
+     * @param loader キャッシュにない場合の問い合わせ処理
+     * @return ID一覧
+     */
+    public List<Long> getIds(String cacheName, String queryKey, Supplier<List<Long>> loader) {
+        try {
+            return cache(cacheName).get(queryKey, () -> new ArrayList<>(loader.get()));
+        } catch (Cache.ValueRetrievalException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * IDに対応するエントリを登録します。
+     *
+     * @param cacheName キャッシュ名
+     * @param id ID
+     * @param value エントリ
+     */
+    public void put(String cacheName, Long id, Object value) {
+        cache(cacheName).put(id, value);
+    }
+
+    /**
+     * IDに対応するエントリを破棄します。
+     *
+     * @param cacheName キャッシュ名
+     * @param ids ID
+     */
+    public void evict(String cacheName, Collection<Long> ids) {
+        Cache cache = cache(cacheName);
+        ids.forEach(cache::evict);
+    }
+
+    /**
+     * キャッシュ全体を破棄します（問い合わせ結果のID一覧の無効化に使います）。
+     *
+     * @param cacheName キャッシュ名
+     */
+    public void clear(String cacheName) {
+        cache(cacheName).clear();
+    }
+
+    private Cache cache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new RuntimeException("Cache not configured: " + cacheName);
+        }
+        return cache;
+    }
+
+    /**
+     * 読み込み処理の例外をそのまま呼び出し元へ伝えます（データベースの例外などを包まない）。
+     */
+    private static RuntimeException unwrap(Cache.ValueRetrievalException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    private static Object valueOf(Cache.ValueWrapper wrapper) {
+        return wrapper != null ? wrapper.get() : null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.travel.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisに接続できなくても起動を妨げないリスナーコンテナ
+ *
+ * 起動時にRedisへ購読できない場合は例外を投げずにログへ記録し、
+ * 一定間隔で購読をやり直します。その間、他ノードからの無効化通知は届きませんが、
+ * ローカルキャッシュは保持期間で失効するため、古い値を返す期間には上限があります。
+ * 購読後の切断からの復旧は、親クラスの再接続処理に任せます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public class RecoveringListenerContainer extends RedisMessageListenerContainer {
+
+    private static final Logger log = LoggerFactory.getLogger(RecoveringListenerContainer.class);
+
+    private final long retryIntervalMillis;
+
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean stopping;
+
+    private volatile boolean unavailable;
+
+    /**
+     * @param retryIntervalMillis 購読をやり直す間隔（ミリ秒）
+     */
+    public RecoveringListenerContainer(long retryIntervalMillis) {
+        this.retryIntervalMillis = retryIntervalMillis;
+        setRecoveryInterval(retryIntervalMillis);
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        subscribe();
+    }
+
+    private void subscribe() {
+        try {
+            super.start();
+            if (unavailable) {
+                unavailable = false;
+                log.info("Subscribed to Redis for cache invalidation");
+            }
+        } catch (RuntimeException e) {
+            if (!unavailable) {
+                unavailable = true;
+                log.warn("Could not subscribe to Redis for cache invalidation, running with local expiry only; "
+                        + "retrying every {} ms: {}", retryIntervalMillis, e.getMessage());
+            } else {
+                log.debug("Retrying cache invalidation subscription failed: {}", e.getMessage());
+            }
+            // Reset the started flag so the next attempt subscribes again
+            super.stop();
+            if (!stopping && !retryScheduler.isShutdown()) {
+                retryScheduler.schedule(this::retry, retryIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void retry() {
+        if (!stopping) {
+            subscribe();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopping = true;
+        super.stop();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        stopping = true;
+        retryScheduler.shutdownNow();
+        super.destroy();
+    }
+}
@@ -0,0 +1,143 @@
+package com.travel.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * キャッシュの先行更新（refresh-ahead / stale-while-revalidate）の方針
+ *
+ * エントリが書き込まれてからTTLの一定割合を過ぎると、値はそのまま返しつつ
+ * バックグラウンドで読み込み直します。Redis上のエントリはTTLに許容する古さの分を
+ * 加えた期間だけ保持し、その間は読み込み直しが終わるまで古い値を返します。
+ * 許容する古さを超えたエントリは使わず、呼び出し元で読み込みます。
+ *
+ * エントリの書き込み時刻は、Redis上の残りの有効期間から求めます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public class RefreshAheadPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadPolicy.class);
+
+    private final long ttlMillis;
+
+    private final long refreshAfterMillis;
+
+    private final long maxStaleMillis;
+
+    private final Executor executor;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String keyPrefix;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param ttl エントリの有効期間
+     * @param refreshFraction 先行更新を始める経過時間の割合（0より大きく1以下）
+     * @param maxStale 有効期間を過ぎてから古い値を返してよい期間
+     * @param executor 読み込み直しを実行するExecutor
+     * @param redisTemplate Redisテンプレート（残りの有効期間の取得に使用）
+     * @param keyPrefix Redis上のキーの接頭辞
+     */
+    public RefreshAheadPolicy(Duration ttl, double refreshFraction, Duration maxStale, Executor executor,
+                              StringRedisTemplate redisTemplate, String keyPrefix) {
+        if (refreshFraction <= 0 || refreshFraction > 1) {
+            throw new IllegalArgumentException("refreshFraction must be in (0, 1]: " + refreshFraction);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.refreshAfterMillis = (long) (ttlMillis * refreshFraction);
+        this.maxStaleMillis = maxStale.toMillis();
+        this.executor = executor;
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+    }
+
+    /**
+     * @return Redis上の保持期間（有効期間と古い値を返してよい期間の合計）
+     */
+    public Duration getRemoteTtl() {
+        return Duration.ofMillis(ttlMillis + maxStaleMillis);
+    }
+
+    /**
+     * @param writtenAt 書き込み時刻（エポックミリ秒）
+     * @return 先行更新を始める時刻
+     */
+    long refreshAt(long writtenAt) {
+        return writtenAt + refreshAfterMillis;
+    }
+
+    /**
+     * @param writtenAt 書き込み時刻（エポックミリ秒）
+     * @return 古い値も返せなくなる時刻
+     */
+    long expiresAt(long writtenAt) {
+        return writtenAt + ttlMillis + maxStaleMillis;
+    }
+
+    /**
+     * Redis上の残りの有効期間から、エントリの書き込み時刻を求めます。
+     * 取得できない場合は現在時刻を書き込み時刻とみなします。
+     *
+     * @param localKey キャッシュキーの文字列表現
+     * @param now 現在時刻（エポックミリ秒）
+     * @return 書き込み時刻
+     */
+    long remoteWrittenAt(String localKey, long now) {
+        try {
+            Long remaining = redisTemplate.getExpire(keyPrefix + localKey, TimeUnit.MILLISECONDS);
+            if (remaining != null && remaining >= 0) {
+                return now + remaining - (ttlMillis + maxStaleMillis);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to read remaining TTL of cache key {}", keyPrefix + localKey, e);
+        }
+        return now;
+    }
+
+    /**
+     * 読み込み直しを依頼します。既に読み込み直し中のキーは除き、残りのキーを1つの処理で実行します。
+     * Executorが受け付けない場合は何もしません（次の参照で改めて依頼されます）。
+     *
+     * @param localKeys キャッシュキーの文字列表現
+     * @param refresh 読み込み直しの処理
+     */
+    void submit(Collection<String> localKeys, Consumer<List<String>> refresh) {
+        List<String> claimed = new ArrayList<>();
+        for (String localKey : localKeys) {
+            if (refreshing.add(localKey)) {
+                claimed.add(localKey);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh.accept(claimed);
+                } finally {
+                    claimed.forEach(refreshing::remove);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            claimed.forEach(refreshing::remove);
+            log.debug("Refresh-ahead rejected by executor for {} keys", claimed.size());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.travel.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * キー単位の読み込みの集約（シングルフライト）
+ *
+ * 同じキーの読み込みが同時に要求された場合、最初の呼び出し元だけが読み込みを実行し、
+ * 他の呼び出し元はその結果（または例外）を待って受け取ります。
+ * 読み込みが終わったキーは登録を外すため、結果や失敗は保持しません。
+ *
+ * @param <K> キーの型
+ * @author Travel System
+ * @version 1.0
+ */
+public class SingleFlight<K> {
+
+    private final ConcurrentMap<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * キーの値を読み込みます。同じキーの読み込みが実行中の場合はその結果を待ちます。
+     *
+     * @param key キー
+     * @param loader 読み込み処理
+     * @return 読み込んだ値
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V load(K key, Callable<V> loader) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return (V) await(running);
+        }
+        try {
+            V value = loader.call();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 複数のキーの値をまとめて読み込みます。
+     * 実行中の読み込みがないキーだけを1回の読み込み処理に渡し、残りは実行中の結果を待ちます。
+     *
+     * @param keys キー一覧
+     * @param loader 一括読み込み処理（見つからないキーは結果に含めない）
+     * @return キーと値の対応（見つからないキーは含まない）
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Map<K, V> loadAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) throws Exception {
+        Map<K, CompletableFuture<Object>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<Object>> running = new LinkedHashMap<>();
+        for (K key : keys) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                running.put(key, existing);
+            } else {
+                owned.put(key, future);
+            }
+        }
+
+        Map<K, V> values = new HashMap<>();
+        if (!owned.isEmpty()) {
+            try {
+                Map<K, V> loaded = loader.apply(owned.keySet());
+                values.putAll(loaded);
+                owned.forEach((key, future) -> future.complete(loaded.get(key)));
+            } catch (Throwable e) {
+                owned.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(inFlight::remove);
+            }
+        }
+        // Owned keys are completed before waiting, so two batches never wait on each other
+        for (Map.Entry<K, CompletableFuture<Object>> entry : running.entrySet()) {
+            Object value = await(entry.getValue());
+            if (value != null) {
+                values.put(entry.getKey(), (V) value);
+            }
+        }
+        return values;
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
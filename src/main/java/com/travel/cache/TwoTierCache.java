@@ -0,0 +1,468 @@
+package com.travel.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * 2層キャッシュ（ローカルL1 + Redis L2）
+ *
+ * 参照はまずノード内のローカルキャッシュ（Caffeine）を引き、見つからない場合のみ
+ * Redisを参照してローカルへ載せます。更新・削除は両方に反映したうえで、
+ * 他ノードのローカルキャッシュにも無効化を通知します。
+ *
+ * キャッシュミス時の読み込みはキーごとにノード内で1つに集約し、同時に要求した
+ * 呼び出し元はその結果を待ちます。読み込み権のリースが設定されている場合は、
+ * クラスタ全体でも1つのノードだけが読み込みます。
+ *
+ * 先行更新の方針が設定されている場合、有効期間の一定割合を過ぎたエントリは
+ * そのまま返しつつバックグラウンドで読み込み直します（読み込み処理を渡した参照のみ）。
+ * 許容する古さを超えたエントリはローカルにあっても使いません。
+ *
+ * Redisへのアクセスに失敗した場合はローカルキャッシュだけで動作を続けます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public class TwoTierCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCache.class);
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> local;
+
+    private final Cache remote;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final CacheLoadLease loadLease;
+
+    private final RefreshAheadPolicy refreshPolicy;
+
+    private final SingleFlight<String> loads = new SingleFlight<>();
+
+    /**
+     * @param name キャッシュ名
+     * @param local L1のローカルキャッシュ
+     * @param remote L2のキャッシュ
+     * @param invalidationBus ノード間の無効化通知経路
+     * @param loadLease クラスタ全体の読み込み権（使わない場合はnull）
+     * @param refreshPolicy 先行更新の方針（使わない場合はnull）
+     */
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> local,
+                        Cache remote, CacheInvalidationBus invalidationBus, CacheLoadLease loadLease,
+                        RefreshAheadPolicy refreshPolicy) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.loadLease = loadLease;
+        this.refreshPolicy = refreshPolicy;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = localEntry(localKey);
+        if (entry != null) {
+            return new SimpleValueWrapper(entry.value);
+        }
+        ValueWrapper wrapper = remoteGet(key);
+        if (wrapper != null && wrapper.get() != null) {
+            cacheFromRemote(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = localEntry(localKey);
+        if (entry != null) {
+            if (entry.needsRefresh()) {
+                refreshAsync(key, localKey, valueLoader);
+            }
+            return (T) entry.value;
+        }
+        try {
+            return loads.load(localKey, () -> loadThrough(key, localKey, valueLoader));
+        } catch (ValueRetrievalException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    /**
+     * 複数のキーの値をまとめて返します。どの層にもないキーは1回の読み込み処理で読み込み、
+     * 同じキーを読み込み中の他の呼び出しがあればその結果を待ちます。
+     * 一括読み込みではリースは使いません（ノード内の集約のみ）。
+     *
+     * @param keys キー一覧
+     * @param valueLoader 一括読み込み処理（見つからないキーは結果に含めない）
+     * @return キーと値の対応（見つからないキーは含まない）
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> Map<K, T> getAll(Collection<K> keys, Function<Collection<K>, Map<K, T>> valueLoader) {
+        Map<K, T> values = new HashMap<>();
+        Map<String, K> missing = new LinkedHashMap<>();
+        List<K> stale = new ArrayList<>();
+        for (K key : keys) {
+            String localKey = localKey(key);
+            LocalEntry entry = localEntry(localKey);
+            if (entry != null) {
+                values.put(key, (T) entry.value);
+                if (entry.needsRefresh()) {
+                    stale.add(key);
+                }
+            } else {
+                missing.put(localKey, key);
+            }
+        }
+        if (!stale.isEmpty()) {
+            refreshAllAsync(stale, valueLoader);
+        }
+        if (missing.isEmpty()) {
+            return values;
+        }
+        try {
+            Map<String, Object> loaded = loads.loadAll(missing.keySet(), localKeys -> loadAllThrough(
+                    localKeys.stream().map(missing::get).toList(), valueLoader));
+            loaded.forEach((localKey, value) -> values.put(missing.get(localKey), (T) value));
+            return values;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load entries of cache " + name, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remotePut(key, value);
+        String localKey = localKey(key);
+        if (value != null) {
+            cacheLoaded(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteEvict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            remote.clear();
+        } catch (RuntimeException e) {
+            log.warn("Failed to clear cache {} in Redis", name, e);
+        }
+        local.invalidateAll();
+        invalidationBus.publishClear(name);
+    }
+
+    /**
+     * 他ノードからの通知により、ローカルキャッシュのキーだけを破棄します。
+     *
+     * @param localKey キャッシュキーの文字列表現
+     */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    /**
+     * 他ノードからの通知により、ローカルキャッシュ全体を破棄します。
+     */
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private ValueWrapper remoteGet(Object key) {
+        try {
+            return remote.get(key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read cache {} from Redis, treating as a miss", name, e);
+            return null;
+        }
+    }
+
+    /**
+     * L2を確認し、なければ読み込んでL2とL1に登録します。
+     * リースを他ノードが保持している間は、その値がL2に書き込まれるのを待ちます。
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T loadThrough(Object key, String localKey, Callable<T> valueLoader) throws Exception {
+        Object cached = remoteValue(key);
+        if (cached != null) {
+            if (cacheFromRemote(localKey, cached).needsRefresh()) {
+                refreshAsync(key, localKey, valueLoader);
+            }
+            return (T) cached;
+        }
+        String token = null;
+        if (loadLease != null) {
+            long deadline = System.nanoTime() + loadLease.getTtl().toNanos();
+            token = tryAcquireLease(localKey);
+            while (token == null && System.nanoTime() < deadline) {
+                loadLease.pause();
+                cached = remoteValue(key);
+                if (cached != null) {
+                    cacheFromRemote(localKey, cached);
+                    return (T) cached;
+                }
+                token = tryAcquireLease(localKey);
+            }
+            // Waited for the full lease period without a value: load anyway
+        }
+        try {
+            T value = valueLoader.call();
+            if (value != null) {
+                remotePut(key, value);
+                cacheLoaded(localKey, value);
+            }
+            return value;
+        } finally {
+            if (token != null) {
+                releaseLease(localKey, token);
+            }
+        }
+    }
+
+    private <K, T> Map<String, Object> loadAllThrough(List<K> keys, Function<Collection<K>, Map<K, T>> valueLoader) {
+        Map<String, Object> values = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        List<K> stale = new ArrayList<>();
+        for (K key : keys) {
+            Object cached = remoteValue(key);
+            if (cached != null) {
+                if (cacheFromRemote(localKey(key), cached).needsRefresh()) {
+                    stale.add(key);
+                }
+                values.put(localKey(key), cached);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (!stale.isEmpty()) {
+            refreshAllAsync(stale, valueLoader);
+        }
+        if (!missing.isEmpty()) {
+            valueLoader.apply(missing).forEach((key, value) -> {
+                if (value != null) {
+                    remotePut(key, value);
+                    cacheLoaded(localKey(key), value);
+                    values.put(localKey(key), value);
+                }
+            });
+        }
+        return values;
+    }
+
+    /**
+     * エントリをバックグラウンドで読み込み直します。リースが設定されている場合、
+     * 他ノードが読み込み中のキーは読み込み直しません。
+     */
+    private void refreshAsync(Object key, String localKey, Callable<?> valueLoader) {
+        refreshPolicy.submit(List.of(localKey), claimed -> {
+            String token = loadLease != null ? tryAcquireLease(localKey) : "";
+            if (token == null) {
+                return;
+            }
+            try {
+                refreshed(key, valueLoader.call());
+            } catch (Exception e) {
+                log.warn("Failed to refresh cache {} entry {}, serving the cached value", name, localKey, e);
+            } finally {
+                releaseLease(localKey, token);
+            }
+        });
+    }
+
+    /**
+     * 複数のエントリをバックグラウンドでまとめて読み込み直します（リースは使いません）。
+     */
+    private <K, T> void refreshAllAsync(List<K> keys, Function<Collection<K>, Map<K, T>> valueLoader) {
+        Map<String, K> byLocalKey = new LinkedHashMap<>();
+        keys.forEach(key -> byLocalKey.put(localKey(key), key));
+        refreshPolicy.submit(byLocalKey.keySet(), claimed -> {
+            List<K> claimedKeys = claimed.stream().map(byLocalKey::get).toList();
+            try {
+                Map<K, T> loaded = valueLoader.apply(claimedKeys);
+                claimedKeys.forEach(key -> refreshed(key, loaded.get(key)));
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh {} entries of cache {}, serving the cached values",
+                        claimedKeys.size(), name, e);
+            }
+        });
+    }
+
+    /**
+     * 読み込み直した値を登録し、他ノードには古いローカルのエントリを破棄させます。
+     * 値がなくなっていた場合はエントリを削除します。
+     */
+    private void refreshed(Object key, Object value) {
+        String localKey = localKey(key);
+        if (value != null) {
+            remotePut(key, value);
+            cacheLoaded(localKey, value);
+        } else {
+            remoteEvict(key);
+            local.invalidate(localKey);
+        }
+        invalidationBus.publishEvict(name, localKey);
+    }
+
+    /**
+     * 許容する古さを超えたローカルのエントリは破棄して、ないものとして扱います。
+     */
+    private LocalEntry localEntry(String localKey) {
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null && entry.isExpired()) {
+            local.invalidate(localKey);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 読み込んだ（または書き込んだ）値をローカルに登録します。
+     */
+    private LocalEntry cacheLoaded(String localKey, Object value) {
+        return cacheLocal(localKey, value, System.currentTimeMillis());
+    }
+
+    /**
+     * L2から取得した値を、L2に書き込まれた時刻に基づいてローカルに登録します。
+     */
+    private LocalEntry cacheFromRemote(String localKey, Object value) {
+        long now = System.currentTimeMillis();
+        return cacheLocal(localKey, value, refreshPolicy != null ? refreshPolicy.remoteWrittenAt(localKey, now) : now);
+    }
+
+    private LocalEntry cacheLocal(String localKey, Object value, long writtenAt) {
+        LocalEntry entry = refreshPolicy != null
+                ? new LocalEntry(value, refreshPolicy.refreshAt(writtenAt), refreshPolicy.expiresAt(writtenAt))
+                : new LocalEntry(value, Long.MAX_VALUE, Long.MAX_VALUE);
+        local.put(localKey, entry);
+        return entry;
+    }
+
+    private Object remoteValue(Object key) {
+        ValueWrapper wrapper = remoteGet(key);
+        return wrapper != null ? wrapper.get() : null;
+    }
+
+    private void remotePut(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write cache {} to Redis", name, e);
+        }
+    }
+
+    private void remoteEvict(Object key) {
+        try {
+            remote.evict(key);
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict cache {} in Redis", name, e);
+        }
+    }
+
+    /**
+     * リースの取得を試みます。Redisに接続できない場合はリースなしで読み込みます。
+     *
+     * @return 取得できた場合はトークン（Redisに接続できない場合は空文字）、他ノードが保持している場合はnull
+     */
+    private String tryAcquireLease(String localKey) {
+        try {
+            return loadLease.tryAcquire(name, localKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to acquire load lease for cache {}, loading without it", name, e);
+            return "";
+        }
+    }
+
+    private void releaseLease(String localKey, String token) {
+        if (token.isEmpty()) {
+            return;
+        }
+        try {
+            loadLease.release(name, localKey, token);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release load lease for cache {}", name, e);
+        }
+    }
+
+    /**
+     * ローカルキャッシュと無効化通知のキー（RedisCacheと同じく文字列表現を使う）
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * ローカルキャッシュのエントリ（値と先行更新・失効の時刻）
+     */
+    static final class LocalEntry {
+
+        private final Object value;
+
+        private final long refreshAt;
+
+        private final long expiresAt;
+
+        LocalEntry(Object value, long refreshAt, long expiresAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean needsRefresh() {
+            return System.currentTimeMillis() >= refreshAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.travel.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 2層キャッシュマネージャー
+ *
+ * Redisのキャッシュマネージャーが返すキャッシュの前段に、キャッシュ名ごとの
+ * 容量上限付きローカルキャッシュ（Caffeine、W-TinyLFUによる追い出し）を置きます。
+ * ローカルの保持期間はRedis側のTTLを超えないように設定します。
+ * 先行更新の対象のキャッシュは、ローカルでもRedis側と同じ期間保持し、エントリごとの
+ * 更新時刻・期限に従います（ローカルのヒットで先行更新を始め、ミスのたびにRedisへ
+ * 残りの有効期間を問い合わせずに済むようにするため）。
+ *
+ * 他ノードからの無効化通知を受け取り、該当するローカルキャッシュを破棄します。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public class TwoTierCacheManager implements CacheManager, CacheInvalidationBus.Handler {
+
+    private final CacheManager remoteCacheManager;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final long localMaxSize;
+
+    private final Duration localTtl;
+
+    private final Map<String, Duration> remoteTtls;
+
+    private final CacheLoadLease loadLease;
+
+    private final Map<String, RefreshAheadPolicy> refreshPolicies;
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param remoteCacheManager L2となるキャッシュマネージャー
+     * @param invalidationBus ノード間の無効化通知経路
+     * @param localMaxSize キャッシュ名ごとのローカルの最大件数
+     * @param localTtl ローカルの保持期間
+     * @param remoteTtls キャッシュ名ごとのL2のTTL
+     * @param loadLease キャッシュミス時のクラスタ全体の読み込み権（使わない場合はnull）
+     * @param refreshPolicies キャッシュ名ごとの先行更新の方針（対象外のキャッシュは含めない）
+     */
+    public TwoTierCacheManager(CacheManager remoteCacheManager, CacheInvalidationBus invalidationBus,
+                               long localMaxSize, Duration localTtl, Map<String, Duration> remoteTtls,
+                               CacheLoadLease loadLease, Map<String, RefreshAheadPolicy> refreshPolicies) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.remoteTtls = remoteTtls;
+        this.loadLease = loadLease;
+        this.refreshPolicies = refreshPolicies;
+        invalidationBus.subscribe(this);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new TwoTierCache(name, newLocalCache(name), remote, invalidationBus,
+                loadLease, refreshPolicies.get(name)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        TwoTierCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, TwoTierCache.LocalEntry> newLocalCache(String name) {
+        RefreshAheadPolicy refreshPolicy = refreshPolicies.get(name);
+        Duration remoteTtl = refreshPolicy != null ? refreshPolicy.getRemoteTtl() : remoteTtls.get(name);
+        // A refresh-ahead entry must outlive its refresh point locally; its own expiry still bounds it
+        Duration ttl = refreshPolicy != null || remoteTtl != null && remoteTtl.compareTo(localTtl) < 0
+                ? remoteTtl
+                : localTtl;
+        return Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
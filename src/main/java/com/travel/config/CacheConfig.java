@@ -1,44 +1,135 @@
 package com.travel.config;
 
+import com.travel.cache.BinaryCodec;
+import com.travel.cache.CacheCodecs;
+import com.travel.cache.CacheInvalidationBus;
+import com.travel.cache.CacheLoadLease;
+import com.travel.cache.CacheNames;
+import com.travel.cache.CompactRedisSerializer;
+import com.travel.cache.RecoveringListenerContainer;
+import com.travel.cache.RefreshAheadPolicy;
+import com.travel.cache.TwoTierCacheManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * キャッシュ設定クラス
- * 
+ *
  * アプリケーション全体のキャッシュ戦略を管理します。
- * Redisを使用した高性能なキャッシュシステムを提供し、
- * データベースアクセスの負荷を軽減します。
- * 
+ * ノード内のローカルキャッシュとRedisを組み合わせた2層キャッシュを提供し、
+ * データベースアクセスの負荷とRedisへの往復を軽減します。
+ *
  * @author Travel System
  * @version 1.0
  */
 @Configuration
 @EnableCaching
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
+
+    /** ツアー情報のTTL（頻繁に変更されるため短め） */
+    @Value("${travel.cache.tours.ttl:900000}")
+    private long toursTtl;
+
+    /** 目的地情報のTTL（比較的安定） */
+    @Value("${travel.cache.destinations.ttl:3600000}")
+    private long destinationsTtl;
+
+    /** ユーザー情報のTTL */
+    @Value("${travel.cache.users.ttl:600000}")
+    private long usersTtl;
+
+    /** 一覧・検索結果のID一覧のTTL */
+    @Value("${travel.cache.queries.ttl:300000}")
+    private long queriesTtl;
+
+    /** ローカルキャッシュのキャッシュ名ごとの最大件数 */
+    @Value("${travel.cache.local.max-size:10000}")
+    private long localMaxSize;
+
+    /** ローカルキャッシュの保持期間（無効化通知を取りこぼした場合の上限） */
+    @Value("${travel.cache.local.ttl:60000}")
+    private long localTtl;
+
+    /** キャッシュ値を圧縮するサイズの下限（バイト） */
+    @Value("${travel.cache.compression-threshold:1024}")
+    private int compressionThreshold;
+
+    /** キャッシュミス時の読み込み権をクラスタ全体で1ノードに絞るか（ノード内の集約は常に有効） */
+    @Value("${travel.cache.load-lease.enabled:false}")
+    private boolean loadLeaseEnabled;
+
+    /** 読み込み権の期限（他ノードが値を待つ最大時間） */
+    @Value("${travel.cache.load-lease.ttl:5000}")
+    private long loadLeaseTtl;
+
+    /** 読み込み権を待つ間のRedisの確認間隔 */
+    @Value("${travel.cache.load-lease.poll-interval:50}")
+    private long loadLeasePollInterval;
+
+    /** カタログ系キャッシュの先行更新を行うか */
+    @Value("${travel.cache.refresh-ahead.enabled:true}")
+    private boolean refreshAheadEnabled;
+
+    /** 先行更新を始める経過時間の割合（TTLに対する割合） */
+    @Value("${travel.cache.refresh-ahead.refresh-fraction:0.8}")
+    private double refreshFraction;
+
+    /** TTLを過ぎてから読み込み直しまでの間、古い値を返してよい期間 */
+    @Value("${travel.cache.refresh-ahead.max-stale:60000}")
+    private long maxStale;
+
+    /** ノード間の無効化通知に使うチャネル */
+    @Value("${travel.cache.invalidation-channel:travel:cache:invalidation}")
+    private String invalidationChannel;
+
+    /** Redisに購読できない場合に購読をやり直す間隔 */
+    @Value("${travel.cache.invalidation-retry-interval:5000}")
+    private long invalidationRetryInterval;
 
     /**
-     * Redisキャッシュマネージャーの設定
-     * 
-     * 各エンティティタイプに応じたTTL（Time To Live）を設定し、
-     * 効率的なキャッシュ戦略を提供します。
-     * 
+     * 2層キャッシュマネージャーの設定
+     *
+     * Redisキャッシュマネージャーの前段にローカルキャッシュを置きます。
+     * 各エンティティタイプに応じたTTL（Time To Live）はRedis側に設定し、
+     * ローカル側の保持期間はそれを超えないようにします。
+     * キャッシュミス時の読み込みはキーごとに集約し、有効期限切れの瞬間に
+     * 同じ問い合わせがデータベースへ集中しないようにします。
+     * カタログ系（ツアー・目的地とその一覧）のキャッシュは期限切れの前に
+     * バックグラウンドで読み込み直し、利用者の要求が読み込みを待たないようにします。
+     *
      * @param redisConnectionFactory Redis接続ファクトリー
+     * @param cacheInvalidationBus ノード間の無効化通知経路
+     * @param stringRedisTemplate Redisテンプレート（読み込み権・残りの有効期間の取得に使用）
+     * @param taskExecutor 先行更新を実行するExecutor
      * @return 設定済みのキャッシュマネージャー
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     @Qualifier("taskExecutor") Executor taskExecutor) {
         // デフォルトのキャッシュ設定（30分TTL）
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
@@ -48,30 +139,92 @@ public class CacheConfig {
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(config)
-                // ツアー情報は15分でキャッシュ更新（頻繁に変更されるため）
-                .withCacheConfiguration("tours",
-                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(15)))
-                // 目的地情報は1時間でキャッシュ更新（比較的安定）
-                .withCacheConfiguration("destinations",
-                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(1)))
-                // ユーザー情報は10分でキャッシュ更新
-                .withCacheConfiguration("users",
-                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)))
-                .build();
+        Map<String, Duration> ttls = Map.of(
+                CacheNames.TOURS, Duration.ofMillis(toursTtl),
+                CacheNames.TOUR_QUERIES, Duration.ofMillis(queriesTtl),
+                CacheNames.DESTINATIONS, Duration.ofMillis(destinationsTtl),
+                CacheNames.DESTINATION_QUERIES, Duration.ofMillis(queriesTtl),
+                CacheNames.USERS, Duration.ofMillis(usersTtl));
+
+        // エンティティとID一覧はコンパクトなバイナリ形式で保存（型情報を含まず、大きな値は圧縮）
+        Map<String, BinaryCodec<?>> codecs = Map.of(
+                CacheNames.TOURS, CacheCodecs.TOUR_VIEW,
+                CacheNames.TOUR_QUERIES, CacheCodecs.ID_LIST,
+                CacheNames.DESTINATIONS, CacheCodecs.DESTINATION,
+                CacheNames.DESTINATION_QUERIES, CacheCodecs.ID_LIST);
+
+        // 先行更新の対象（Redis上はTTLに古い値を返してよい期間を加えて保持する）
+        Set<String> refreshAheadCaches = Set.of(CacheNames.TOURS, CacheNames.TOUR_QUERIES,
+                CacheNames.DESTINATIONS, CacheNames.DESTINATION_QUERIES);
+        Map<String, RefreshAheadPolicy> refreshPolicies = new HashMap<>();
+
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(config);
+        ttls.forEach((name, ttl) -> {
+            Duration remoteTtl = ttl;
+            if (refreshAheadEnabled && refreshAheadCaches.contains(name)) {
+                RefreshAheadPolicy policy = new RefreshAheadPolicy(ttl, refreshFraction, Duration.ofMillis(maxStale),
+                        taskExecutor, stringRedisTemplate, config.getKeyPrefixFor(name));
+                refreshPolicies.put(name, policy);
+                remoteTtl = policy.getRemoteTtl();
+            }
+            BinaryCodec<?> codec = codecs.get(name);
+            builder.withCacheConfiguration(name, codec != null
+                    ? config.entryTtl(remoteTtl).serializeValuesWith(RedisSerializationContext.SerializationPair
+                            .fromSerializer(new CompactRedisSerializer<>(codec, compressionThreshold)))
+                    : config.entryTtl(remoteTtl));
+        });
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        CacheLoadLease loadLease = loadLeaseEnabled
+                ? new CacheLoadLease(stringRedisTemplate, Duration.ofMillis(loadLeaseTtl),
+                        Duration.ofMillis(loadLeasePollInterval))
+                : null;
+
+        return new TwoTierCacheManager(redisCacheManager, cacheInvalidationBus, localMaxSize,
+                Duration.ofMillis(localTtl), ttls, loadLease, refreshPolicies);
     }
 
     /**
-     * フォールバックキャッシュマネージャーの設定
-     * 
-     * Redisが利用できない場合の代替キャッシュとして、
-     * メモリベースのConcurrentMapCacheManagerを提供します。
-     * 
-     * @return フォールバック用のキャッシュマネージャー
+     * ノード間のキャッシュ無効化通知経路の設定
+     *
+     * @param stringRedisTemplate Redisテンプレート
+     * @return 無効化通知経路
      */
     @Bean
-    public CacheManager fallbackCacheManager() {
-        return new ConcurrentMapCacheManager("tours", "destinations", "users");
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate) {
+        return new CacheInvalidationBus(stringRedisTemplate, invalidationChannel);
+    }
+
+    /**
+     * 無効化通知を購読するリスナーコンテナの設定
+     *
+     * Redisに接続できない場合も起動は続け、購読は一定間隔でやり直します。
+     *
+     * @param redisConnectionFactory Redis接続ファクトリー
+     * @param cacheInvalidationBus ノード間の無効化通知経路
+     * @return リスナーコンテナ
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory, CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RecoveringListenerContainer(invalidationRetryInterval);
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        return container;
+    }
+
+    /**
+     * キャッシュ操作のエラーハンドラーの設定
+     *
+     * キャッシュの読み書きに失敗しても業務処理は失敗させず、ログに記録して
+     * キャッシュなしで処理を続けます。
+     *
+     * @return エラーハンドラー
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler(true);
     }
 }
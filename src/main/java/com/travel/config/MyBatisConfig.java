@@ -0,0 +1,40 @@
+package com.travel.config;
+
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * MyBatis設定クラス
+ * 
+ * H2とPostgreSQLで構文が異なるSQL（シーケンスの採番など）を
+ * マッパーXML側で切り替えるためのデータベースIDを提供します。
+ * 
+ * @author Travel System
+ * @version 1.0
+ */
+@Configuration
+public class MyBatisConfig {
+
+    /**
+     * データベースIDプロバイダーの設定
+     * 
+     * JDBCドライバーが返す製品名をマッパーXMLの
+     * databaseId属性の値（h2 / postgresql）に対応付けます。
+     * 
+     * @return データベースIDプロバイダー
+     */
+    @Bean
+    public DatabaseIdProvider databaseIdProvider() {
+        Properties properties = new Properties();
+        properties.setProperty("H2", "h2");
+        properties.setProperty("PostgreSQL", "postgresql");
+
+        VendorDatabaseIdProvider provider = new VendorDatabaseIdProvider();
+        provider.setProperties(properties);
+        return provider;
+    }
+}
@@ -40,6 +40,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 // 許可するヘッダー
                 .allowedHeaders("*")
+                // ブラウザから参照できるレスポンスヘッダー（一覧の継続トークン）
+                .exposedHeaders("X-Next-Cursor")
                 // クレデンシャル（Cookie等）の送信を許可
                 .allowCredentials(true)
                 // プリフライトリクエストのキャッシュ時間（秒）
@@ -63,6 +65,8 @@ public class WebConfig implements WebMvcConfigurer {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         // 許可するヘッダー
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // 一覧の継続トークンをブラウザから参照できるようにする
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         // クレデンシャルの送信を許可
         configuration.setAllowCredentials(true);
         // プリフライトリクエストのキャッシュ時間
@@ -1,5 +1,7 @@
 package com.travel.controller;
 
+import com.travel.dto.AutocompleteSuggestionDto;
+import com.travel.dto.KeysetPage;
 import com.travel.entity.Destination;
 import com.travel.service.DestinationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,9 +23,14 @@ public class DestinationController {
     private DestinationService destinationService;
     
     @GetMapping
-    public ResponseEntity<List<Destination>> getAllDestinations() {
-        List<Destination> destinations = destinationService.getAllDestinations();
-        return ResponseEntity.ok(destinations);
+    public ResponseEntity<List<Destination>> getAllDestinations(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        try {
+            KeysetPage<Destination> page = destinationService.getDestinationsPage(cursor, size);
+            return KeysetPage.toResponse(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/active")
@@ -96,6 +103,13 @@ public class DestinationController {
         return ResponseEntity.ok(destinations);
     }
     
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteSuggestionDto>> autocomplete(@RequestParam String q,
+                                                                        @RequestParam(required = false) Integer limit) {
+        List<AutocompleteSuggestionDto> suggestions = destinationService.autocomplete(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+    
     @GetMapping("/countries")
     public ResponseEntity<List<String>> getAllActiveCountries() {
         List<String> countries = destinationService.getAllActiveCountries();
@@ -0,0 +1,154 @@
+package com.travel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travel.dto.BulkReservationResultDto;
+import com.travel.dto.KeysetPage;
+import com.travel.dto.ReservationBucketCountDto;
+import com.travel.dto.ReservationViewDto;
+import com.travel.entity.Reservation;
+import com.travel.service.ReservationService;
+import com.travel.service.ReservationTimeIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/reservations")
+@CrossOrigin(origins = "*")
+public class ReservationController {
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    private static final int FLUSH_EVERY_ROWS = 100;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationViewDto>> getAllReservations(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer size) {
+        try {
+            KeysetPage<ReservationViewDto> page = reservationService.getReservationsPage(cursor, size);
+            return KeysetPage.toResponse(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) Reservation.ReservationStatus status,
+            @RequestParam(required = false) Reservation.PaymentStatus paymentStatus,
+            @RequestParam(required = false) String country) {
+        StreamingResponseBody body = outputStream -> {
+            int[] rows = {0};
+            try {
+                reservationService.exportReservations(status, paymentStatus, country, row -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(row));
+                        outputStream.write('\n');
+                        // Flush the first row right away, then in small batches
+                        if (rows[0]++ % FLUSH_EVERY_ROWS == 0) {
+                            outputStream.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
+    @GetMapping("/stats/created")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationBucketCountDto>> getReservationCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "HOUR") ReservationTimeIndex.Granularity granularity) {
+        try {
+            List<ReservationBucketCountDto> counts =
+                    reservationService.getReservationCountsByBucket(startDate, endDate, granularity);
+            return ResponseEntity.ok(counts);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or @reservationService.isOwnedBy(#id, authentication.principal.id)")
+    public ResponseEntity<ReservationViewDto> getReservationById(@PathVariable Long id) {
+        Optional<ReservationViewDto> reservation = reservationService.getReservationViewById(id);
+        return reservation.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/user/{userId}")
+    @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal.id")
+    public ResponseEntity<List<ReservationViewDto>> getReservationsByUser(@PathVariable Long userId) {
+        List<ReservationViewDto> reservations = reservationService.getReservationViewsByUser(userId);
+        return ResponseEntity.ok(reservations);
+    }
+    
+    @GetMapping("/tour-dates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationViewDto>> getReservationsByTourStartDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        List<ReservationViewDto> reservations = reservationService.getReservationViewsByTourStartDate(startDate, endDate);
+        return ResponseEntity.ok(reservations);
+    }
+    
+    @GetMapping("/tour/{tourId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationViewDto>> getReservationsByTour(@PathVariable Long tourId) {
+        List<ReservationViewDto> reservations = reservationService.getReservationViewsByTour(tourId);
+        return ResponseEntity.ok(reservations);
+    }
+    
+    @PostMapping
+    public ResponseEntity<Reservation> createReservation(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody Reservation reservation,
+            Principal principal) {
+        try {
+            String owner = principal != null ? principal.getName() : "anonymous";
+            Reservation createdReservation = reservationService.createReservation(reservation, idempotencyKey, owner);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdReservation);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkReservationResultDto>> createReservations(@RequestBody List<Reservation> reservations) {
+        try {
+            List<BulkReservationResultDto> results = reservationService.createReservations(reservations);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.travel.controller;
+
+import com.travel.dto.SeatHoldDto;
+import com.travel.entity.Reservation;
+import com.travel.service.ReservationService;
+import com.travel.service.SeatHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/holds")
+@CrossOrigin(origins = "*")
+public class SeatHoldController {
+    
+    @Autowired
+    private SeatHoldService seatHoldService;
+    
+    @Autowired
+    private ReservationService reservationService;
+    
+    @PostMapping
+    public ResponseEntity<SeatHoldDto> placeHold(@RequestParam Long tourId, @RequestParam Integer seats) {
+        try {
+            SeatHoldDto hold = seatHoldService.placeHold(tourId, seats);
+            return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{holdId}")
+    public ResponseEntity<SeatHoldDto> getHold(@PathVariable String holdId) {
+        SeatHoldDto hold = seatHoldService.getHold(holdId);
+        return hold != null ? ResponseEntity.ok(hold) : ResponseEntity.notFound().build();
+    }
+    
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        try {
+            seatHoldService.releaseHold(holdId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @PostMapping("/{holdId}/reservation")
+    public ResponseEntity<Reservation> convertHold(@PathVariable String holdId, @RequestBody Reservation reservation) {
+        try {
+            Reservation createdReservation = reservationService.createReservationFromHold(holdId, reservation);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdReservation);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
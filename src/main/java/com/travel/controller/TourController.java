@@ -0,0 +1,108 @@
+package com.travel.controller;
+
+import com.travel.dto.KeysetPage;
+import com.travel.dto.TourFacetSearchResultDto;
+import com.travel.dto.TourSearchCriteria;
+import com.travel.dto.TourViewDto;
+import com.travel.entity.Tour;
+import com.travel.service.TourDateIndex;
+import com.travel.service.TourService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/tours")
+@CrossOrigin(origins = "*")
+public class TourController {
+    
+    @Autowired
+    private TourService tourService;
+    
+    @GetMapping
+    public ResponseEntity<List<TourViewDto>> getAllTours(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        try {
+            KeysetPage<TourViewDto> page = tourService.getToursPage(cursor, size);
+            return KeysetPage.toResponse(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/available")
+    public ResponseEntity<List<TourViewDto>> getAvailableTours() {
+        List<TourViewDto> tours = tourService.getAvailableTours();
+        return ResponseEntity.ok(tours);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<TourViewDto> getTourById(@PathVariable Long id) {
+        Optional<TourViewDto> tour = tourService.getTourViewById(id);
+        return tour.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Tour> createTour(@Valid @RequestBody Tour tour) {
+        try {
+            Tour createdTour = tourService.createTour(tour);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdTour);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Tour> updateTour(@PathVariable Long id, @Valid @RequestBody Tour tourDetails) {
+        try {
+            Tour updatedTour = tourService.updateTour(id, tourDetails);
+            return ResponseEntity.ok(updatedTour);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteTour(@PathVariable Long id) {
+        try {
+            tourService.deleteTour(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<TourViewDto>> searchTours(@RequestParam String name) {
+        List<TourViewDto> tours = tourService.searchTours(name);
+        return ResponseEntity.ok(tours);
+    }
+    
+    @GetMapping("/calendar")
+    public ResponseEntity<List<TourViewDto>> getToursByDateWindow(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "OVERLAPS") TourDateIndex.Match match,
+            @RequestParam(required = false) Long destinationId) {
+        List<TourViewDto> tours = tourService.getToursByDateWindow(destinationId, from, to, match);
+        return ResponseEntity.ok(tours);
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<TourFacetSearchResultDto> searchToursByFacets(@ModelAttribute TourSearchCriteria criteria) {
+        TourFacetSearchResultDto result = tourService.searchToursByFacets(criteria);
+        return ResponseEntity.ok(result);
+    }
+}
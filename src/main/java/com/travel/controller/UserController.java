@@ -1,5 +1,6 @@
 package com.travel.controller;
 
+import com.travel.dto.KeysetPage;
 import com.travel.entity.User;
 import com.travel.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,9 +23,14 @@ public class UserController {
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
+        try {
+            KeysetPage<User> page = userService.getUsersPage(cursor, size);
+            return KeysetPage.toResponse(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
@@ -108,4 +114,4 @@ public class UserController {
         boolean exists = userService.existsByEmail(email);
         return ResponseEntity.ok(exists);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
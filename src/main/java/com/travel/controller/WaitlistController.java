@@ -0,0 +1,49 @@
+package com.travel.controller;
+
+import com.travel.dto.WaitlistEntryDto;
+import com.travel.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDto> joinWaitlist(@RequestParam Long tourId, @RequestParam Long userId,
+                                                         @RequestParam Integer numberOfPeople,
+                                                         @RequestParam(required = false) String contactEmail) {
+        try {
+            WaitlistEntryDto entry = waitlistService.joinWaitlist(tourId, userId, numberOfPeople, contactEmail);
+            return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long id) {
+        try {
+            waitlistService.leaveWaitlist(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/tour/{tourId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<WaitlistEntryDto>> getWaitlist(@PathVariable Long tourId) {
+        List<WaitlistEntryDto> entries = waitlistService.getWaitlist(tourId);
+        return ResponseEntity.ok(entries);
+    }
+}
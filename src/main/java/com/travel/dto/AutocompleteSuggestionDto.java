@@ -0,0 +1,52 @@
+package com.travel.dto;
+
+public class AutocompleteSuggestionDto {
+    private String text;
+    private String type;
+    private Long destinationId;
+    private long weight;
+
+    // Constructors
+    public AutocompleteSuggestionDto() {
+    }
+
+    public AutocompleteSuggestionDto(String text, String type, Long destinationId, long weight) {
+        this.text = text;
+        this.type = type;
+        this.destinationId = destinationId;
+        this.weight = weight;
+    }
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(Long destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+}
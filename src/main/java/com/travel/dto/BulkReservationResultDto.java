@@ -0,0 +1,56 @@
+package com.travel.dto;
+
+public class BulkReservationResultDto {
+    private int index;
+    private boolean success;
+    private Long reservationId;
+    private String message;
+
+    // Constructors
+    public BulkReservationResultDto() {
+    }
+
+    public BulkReservationResultDto(int index, boolean success, Long reservationId, String message) {
+        this.index = index;
+        this.success = success;
+        this.reservationId = reservationId;
+        this.message = message;
+    }
+
+    public static BulkReservationResultDto failure(int index, String message) {
+        return new BulkReservationResultDto(index, false, null, message);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,44 @@
+package com.travel.dto;
+
+import java.time.LocalDateTime;
+
+public class ReservationBucketCountDto {
+    private LocalDateTime bucketStart;
+    private long created;
+    private long cancelled;
+
+    // Constructors
+    public ReservationBucketCountDto() {
+    }
+
+    public ReservationBucketCountDto(LocalDateTime bucketStart, long created, long cancelled) {
+        this.bucketStart = bucketStart;
+        this.created = created;
+        this.cancelled = cancelled;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(long cancelled) {
+        this.cancelled = cancelled;
+    }
+}
@@ -0,0 +1,127 @@
+package com.travel.dto;
+
+import com.travel.entity.Reservation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ReservationExportDto {
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long tourId;
+    private String tourName;
+    private String destinationCountry;
+    private Integer numberOfPeople;
+    private BigDecimal totalPrice;
+    private Reservation.ReservationStatus status;
+    private Reservation.PaymentStatus paymentStatus;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ReservationExportDto() {
+    }
+
+    public ReservationExportDto(Long id, Long userId, String username, Long tourId, String tourName, String destinationCountry, Integer numberOfPeople, BigDecimal totalPrice, Reservation.ReservationStatus status, Reservation.PaymentStatus paymentStatus, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.tourId = tourId;
+        this.tourName = tourName;
+        this.destinationCountry = destinationCountry;
+        this.numberOfPeople = numberOfPeople;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getTourId() {
+        return tourId;
+    }
+
+    public void setTourId(Long tourId) {
+        this.tourId = tourId;
+    }
+
+    public String getTourName() {
+        return tourName;
+    }
+
+    public void setTourName(String tourName) {
+        this.tourName = tourName;
+    }
+
+    public String getDestinationCountry() {
+        return destinationCountry;
+    }
+
+    public void setDestinationCountry(String destinationCountry) {
+        this.destinationCountry = destinationCountry;
+    }
+
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public void setNumberOfPeople(Integer numberOfPeople) {
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Reservation.ReservationStatus status) {
+        this.status = status;
+    }
+
+    public Reservation.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public void setPaymentStatus(Reservation.PaymentStatus paymentStatus) {
+        this.paymentStatus = paymentStatus;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
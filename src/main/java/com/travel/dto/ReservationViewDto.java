@@ -0,0 +1,212 @@
+package com.travel.dto;
+
+import com.travel.entity.Reservation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ReservationViewDto {
+    private Long id;
+    private Long userId;
+    private String username;
+    private String userFullName;
+    private Long tourId;
+    private String tourName;
+    private LocalDate tourStartDate;
+    private LocalDate tourEndDate;
+    private String destinationName;
+    private String destinationCountry;
+    private Integer numberOfPeople;
+    private BigDecimal totalPrice;
+    private Reservation.ReservationStatus status;
+    private Reservation.PaymentStatus paymentStatus;
+    private String specialRequests;
+    private String contactPhone;
+    private String contactEmail;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ReservationViewDto() {
+    }
+
+    public ReservationViewDto(Long id, Long userId, String username, String userFullName, Long tourId,
+            String tourName, LocalDate tourStartDate, LocalDate tourEndDate, String destinationName,
+            String destinationCountry, Integer numberOfPeople, BigDecimal totalPrice,
+            Reservation.ReservationStatus status, Reservation.PaymentStatus paymentStatus, String specialRequests,
+            String contactPhone, String contactEmail, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.userFullName = userFullName;
+        this.tourId = tourId;
+        this.tourName = tourName;
+        this.tourStartDate = tourStartDate;
+        this.tourEndDate = tourEndDate;
+        this.destinationName = destinationName;
+        this.destinationCountry = destinationCountry;
+        this.numberOfPeople = numberOfPeople;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.specialRequests = specialRequests;
+        this.contactPhone = contactPhone;
+        this.contactEmail = contactEmail;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getUserFullName() {
+        return userFullName;
+    }
+
+    public void setUserFullName(String userFullName) {
+        this.userFullName = userFullName;
+    }
+
+    public Long getTourId() {
+        return tourId;
+    }
+
+    public void setTourId(Long tourId) {
+        this.tourId = tourId;
+    }
+
+    public String getTourName() {
+        return tourName;
+    }
+
+    public void setTourName(String tourName) {
+        this.tourName = tourName;
+    }
+
+    public LocalDate getTourStartDate() {
+        return tourStartDate;
+    }
+
+    public void setTourStartDate(LocalDate tourStartDate) {
+        this.tourStartDate = tourStartDate;
+    }
+
+    public LocalDate getTourEndDate() {
+        return tourEndDate;
+    }
+
+    public void setTourEndDate(LocalDate tourEndDate) {
+        this.tourEndDate = tourEndDate;
+    }
+
+    public String getDestinationName() {
+        return destinationName;
+    }
+
+    public void setDestinationName(String destinationName) {
+        this.destinationName = destinationName;
+    }
+
+    public String getDestinationCountry() {
+        return destinationCountry;
+    }
+
+    public void setDestinationCountry(String destinationCountry) {
+        this.destinationCountry = destinationCountry;
+    }
+
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public void setNumberOfPeople(Integer numberOfPeople) {
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Reservation.ReservationStatus status) {
+        this.status = status;
+    }
+
+    public Reservation.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public void setPaymentStatus(Reservation.PaymentStatus paymentStatus) {
+        this.paymentStatus = paymentStatus;
+    }
+
+    public String getSpecialRequests() {
+        return specialRequests;
+    }
+
+    public void setSpecialRequests(String specialRequests) {
+        this.specialRequests = specialRequests;
+    }
+
+    public String getContactPhone() {
+        return contactPhone;
+    }
+
+    public void setContactPhone(String contactPhone) {
+        this.contactPhone = contactPhone;
+    }
+
+    public String getContactEmail() {
+        return contactEmail;
+    }
+
+    public void setContactEmail(String contactEmail) {
+        this.contactEmail = contactEmail;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.travel.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class SeatHoldDto {
+    private String holdId;
+    private Long tourId;
+    private Integer seats;
+    private BigDecimal unitPrice;
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public SeatHoldDto() {
+    }
+
+    public SeatHoldDto(String holdId, Long tourId, Integer seats, BigDecimal unitPrice, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.tourId = tourId;
+        this.seats = seats;
+        this.unitPrice = unitPrice;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public Long getTourId() {
+        return tourId;
+    }
+
+    public void setTourId(Long tourId) {
+        this.tourId = tourId;
+    }
+
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.travel.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class TourFacetSearchResultDto {
+    private List<TourViewDto> tours;
+    private int totalCount;
+    private Map<String, Map<String, Integer>> facets;
+
+    // Constructors
+    public TourFacetSearchResultDto() {
+    }
+
+    public TourFacetSearchResultDto(List<TourViewDto> tours, int totalCount, Map<String, Map<String, Integer>> facets) {
+        this.tours = tours;
+        this.totalCount = totalCount;
+        this.facets = facets;
+    }
+
+    // Getters and Setters
+    public List<TourViewDto> getTours() {
+        return tours;
+    }
+
+    public void setTours(List<TourViewDto> tours) {
+        this.tours = tours;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
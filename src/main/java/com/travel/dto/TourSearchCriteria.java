@@ -0,0 +1,109 @@
+package com.travel.dto;
+
+import com.travel.entity.Tour;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TourSearchCriteria {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private List<Tour.TourType> types = new ArrayList<>();
+    private List<Tour.TourStatus> statuses = new ArrayList<>();
+    private String country;
+    private String region;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDateFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDateTo;
+
+    // Constructors
+    public TourSearchCriteria() {
+    }
+
+    // Getters and Setters
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Integer getMinDuration() {
+        return minDuration;
+    }
+
+    public void setMinDuration(Integer minDuration) {
+        this.minDuration = minDuration;
+    }
+
+    public Integer getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Integer maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public List<Tour.TourType> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<Tour.TourType> types) {
+        this.types = types;
+    }
+
+    public List<Tour.TourStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<Tour.TourStatus> statuses) {
+        this.statuses = statuses;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public LocalDate getStartDateFrom() {
+        return startDateFrom;
+    }
+
+    public void setStartDateFrom(LocalDate startDateFrom) {
+        this.startDateFrom = startDateFrom;
+    }
+
+    public LocalDate getStartDateTo() {
+        return startDateTo;
+    }
+
+    public void setStartDateTo(LocalDate startDateTo) {
+        this.startDateTo = startDateTo;
+    }
+}
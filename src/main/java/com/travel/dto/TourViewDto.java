@@ -0,0 +1,180 @@
+package com.travel.dto;
+
+import com.travel.entity.Tour;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class TourViewDto {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer duration;
+    private Integer maxCapacity;
+    private Integer currentCapacity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Tour.TourType type;
+    private Tour.TourStatus status;
+    private String imageUrl;
+    private Long destinationId;
+    private String destinationName;
+    private String destinationCountry;
+    private String destinationCity;
+
+    // Constructors
+    public TourViewDto() {
+    }
+
+    public TourViewDto(Long id, String name, String description, BigDecimal price, Integer duration,
+            Integer maxCapacity, Integer currentCapacity, LocalDate startDate, LocalDate endDate,
+            Tour.TourType type, Tour.TourStatus status, String imageUrl, Long destinationId, String destinationName,
+            String destinationCountry, String destinationCity) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.duration = duration;
+        this.maxCapacity = maxCapacity;
+        this.currentCapacity = currentCapacity;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.type = type;
+        this.status = status;
+        this.imageUrl = imageUrl;
+        this.destinationId = destinationId;
+        this.destinationName = destinationName;
+        this.destinationCountry = destinationCountry;
+        this.destinationCity = destinationCity;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public Integer getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(Integer maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public Integer getCurrentCapacity() {
+        return currentCapacity;
+    }
+
+    public void setCurrentCapacity(Integer currentCapacity) {
+        this.currentCapacity = currentCapacity;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Tour.TourType getType() {
+        return type;
+    }
+
+    public void setType(Tour.TourType type) {
+        this.type = type;
+    }
+
+    public Tour.TourStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Tour.TourStatus status) {
+        this.status = status;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(Long destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public String getDestinationName() {
+        return destinationName;
+    }
+
+    public void setDestinationName(String destinationName) {
+        this.destinationName = destinationName;
+    }
+
+    public String getDestinationCountry() {
+        return destinationCountry;
+    }
+
+    public void setDestinationCountry(String destinationCountry) {
+        this.destinationCountry = destinationCountry;
+    }
+
+    public String getDestinationCity() {
+        return destinationCity;
+    }
+
+    public void setDestinationCity(String destinationCity) {
+        this.destinationCity = destinationCity;
+    }
+}
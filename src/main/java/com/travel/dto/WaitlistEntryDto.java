@@ -0,0 +1,75 @@
+package com.travel.dto;
+
+import com.travel.entity.WaitlistEntry;
+
+public class WaitlistEntryDto {
+    private Long id;
+    private Long tourId;
+    private Long userId;
+    private Integer numberOfPeople;
+    private WaitlistEntry.WaitlistStatus status;
+    private Integer position;
+
+    // Constructors
+    public WaitlistEntryDto() {
+    }
+
+    public WaitlistEntryDto(Long id, Long tourId, Long userId, Integer numberOfPeople,
+            WaitlistEntry.WaitlistStatus status, Integer position) {
+        this.id = id;
+        this.tourId = tourId;
+        this.userId = userId;
+        this.numberOfPeople = numberOfPeople;
+        this.status = status;
+        this.position = position;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTourId() {
+        return tourId;
+    }
+
+    public void setTourId(Long tourId) {
+        this.tourId = tourId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public void setNumberOfPeople(Integer numberOfPeople) {
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    public WaitlistEntry.WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistEntry.WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+}
@@ -1,5 +1,6 @@
 package com.travel.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -17,7 +18,8 @@ import java.util.Set;
 public class Destination {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "destinations_seq")
+    @SequenceGenerator(name = "destinations_seq", sequenceName = "destinations_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -55,6 +57,8 @@ public class Destination {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Not part of the JSON: destinations are cached detached, and tours point back here
+    @JsonIgnore
     @OneToMany(mappedBy = "destination", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Tour> tours = new HashSet<>();
     
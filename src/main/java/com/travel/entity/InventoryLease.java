@@ -0,0 +1,68 @@
+package com.travel.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 在庫リースエンティティクラス
+ * 
+ * メモリ上のツアー在庫を管理できるノードを1つに限定するためのリースです。
+ * 在庫カウンタはノードごとに独立しているため、リースを保持しているノードだけが
+ * 座席を販売し、期限までに更新されなかったリースは別のノードが引き継げます。
+ * 
+ * @author Travel System
+ * @version 1.0
+ */
+@Entity
+@Table(name = "inventory_leases")
+public class InventoryLease {
+
+    /** リース名（主キー） */
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    /** リースを保持しているノードのID */
+    @Column(nullable = false, length = 100)
+    private String ownerId;
+
+    /** リースの有効期限 */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public InventoryLease() {
+    }
+
+    public InventoryLease(String name, String ownerId, LocalDateTime expiresAt) {
+        this.name = name;
+        this.ownerId = ownerId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
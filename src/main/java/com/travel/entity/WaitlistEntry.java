@@ -0,0 +1,168 @@
+package com.travel.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * キャンセル待ちエンティティクラス
+ * 
+ * 満席のツアーに対するキャンセル待ちの登録を管理するエンティティです。
+ * ツアーごとに登録順（FIFO）で並び、座席が解放されると先頭から
+ * 自動的に予約へ繰り上げられます。
+ * 
+ * @author Travel System
+ * @version 1.0
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = @Index(name = "idx_waitlist_tour_status", columnList = "tour_id, status"))
+@EntityListeners(AuditingEntityListener.class)
+public class WaitlistEntry {
+
+    /** キャンセル待ちID（主キー） */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entries_seq")
+    @SequenceGenerator(name = "waitlist_entries_seq", sequenceName = "waitlist_entries_seq", allocationSize = 50)
+    private Long id;
+
+    /** 登録者（ユーザー） */
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /** 対象ツアー */
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tour_id", nullable = false)
+    private Tour tour;
+
+    /** 希望人数 */
+    @NotNull
+    @Positive
+    private Integer numberOfPeople;
+
+    /** キャンセル待ちステータス（デフォルト：待機中） */
+    @Enumerated(EnumType.STRING)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    /** 繰り上げで作成された予約 */
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id")
+    private Reservation reservation;
+
+    /** 連絡先メールアドレス（最大200文字） */
+    @Size(max = 200)
+    private String contactEmail;
+
+    /** 作成日時（自動設定、更新不可） */
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /** 更新日時（自動更新） */
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * キャンセル待ちステータス列挙型
+     */
+    public enum WaitlistStatus {
+        /** 待機中 */
+        WAITING,
+        /** 予約へ繰り上げ済み */
+        PROMOTED,
+        /** 取り消し済み */
+        CANCELLED
+    }
+
+    // Constructors
+    public WaitlistEntry() {
+    }
+
+    public WaitlistEntry(User user, Tour tour, Integer numberOfPeople) {
+        this.user = user;
+        this.tour = tour;
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Tour getTour() {
+        return tour;
+    }
+
+    public void setTour(Tour tour) {
+        this.tour = tour;
+    }
+
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public void setNumberOfPeople(Integer numberOfPeople) {
+        this.numberOfPeople = numberOfPeople;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    public void setReservation(Reservation reservation) {
+        this.reservation = reservation;
+    }
+
+    public String getContactEmail() {
+        return contactEmail;
+    }
+
+    public void setContactEmail(String contactEmail) {
+        this.contactEmail = contactEmail;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
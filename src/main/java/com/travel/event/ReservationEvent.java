@@ -0,0 +1,135 @@
+package com.travel.event;
+
+import com.travel.entity.Reservation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 予約の状態変更イベント
+ * 
+ * 予約の作成・更新・確定・キャンセル・支払い状況の変更・削除のたびに発行され、
+ * イベントジャーナルへの追記や派生ビューの更新に使用されます。
+ * ジャーナルから読み戻した場合はoffsetにジャーナル上の位置が設定されます。
+ * 予約の作成日時はジャーナルには記録されず、発行時のイベントにだけ設定されます。
+ * 
+ * @author Travel System
+ * @version 1.0
+ */
+public class ReservationEvent {
+
+    /**
+     * イベント種別列挙型
+     * 
+     * ジャーナルには序数で記録されるため、既存の定数の順序は変更しないでください。
+     */
+    public enum Type {
+        /** 作成 */
+        CREATED,
+        /** 更新 */
+        UPDATED,
+        /** 確定 */
+        CONFIRMED,
+        /** キャンセル */
+        CANCELLED,
+        /** 支払いステータス変更 */
+        PAYMENT_STATUS_CHANGED,
+        /** 削除 */
+        DELETED
+    }
+
+    private final long offset;
+    private final Type type;
+    private final long timestamp;
+    private final Long reservationId;
+    private final Long tourId;
+    private final Long userId;
+    private final Reservation.ReservationStatus status;
+    private final Reservation.PaymentStatus paymentStatus;
+    private final Integer numberOfPeople;
+    private final BigDecimal totalPrice;
+    private final LocalDateTime createdAt;
+
+    public ReservationEvent(long offset, Type type, long timestamp, Long reservationId, Long tourId, Long userId,
+            Reservation.ReservationStatus status, Reservation.PaymentStatus paymentStatus, Integer numberOfPeople,
+            BigDecimal totalPrice) {
+        this(offset, type, timestamp, reservationId, tourId, userId, status, paymentStatus, numberOfPeople,
+                totalPrice, null);
+    }
+
+    public ReservationEvent(long offset, Type type, long timestamp, Long reservationId, Long tourId, Long userId,
+            Reservation.ReservationStatus status, Reservation.PaymentStatus paymentStatus, Integer numberOfPeople,
+            BigDecimal totalPrice, LocalDateTime createdAt) {
+        this.offset = offset;
+        this.type = type;
+        this.timestamp = timestamp;
+        this.reservationId = reservationId;
+        this.tourId = tourId;
+        this.userId = userId;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.numberOfPeople = numberOfPeople;
+        this.totalPrice = totalPrice;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * 予約の現在の状態からイベントを作成します。
+     * 
+     * @param type イベント種別
+     * @param reservation 対象の予約
+     * @return 作成されたイベント（offsetは未採番の-1）
+     */
+    public static ReservationEvent of(Type type, Reservation reservation) {
+        return new ReservationEvent(-1, type, System.currentTimeMillis(), reservation.getId(),
+                reservation.getTour() != null ? reservation.getTour().getId() : null,
+                reservation.getUser() != null ? reservation.getUser().getId() : null,
+                reservation.getStatus(), reservation.getPaymentStatus(), reservation.getNumberOfPeople(),
+                reservation.getTotalPrice(), reservation.getCreatedAt());
+    }
+
+    // Getters
+    public long getOffset() {
+        return offset;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public Long getTourId() {
+        return tourId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public Reservation.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public Integer getNumberOfPeople() {
+        return numberOfPeople;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
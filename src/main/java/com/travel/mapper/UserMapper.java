@@ -11,8 +11,6 @@ import java.util.List;
 @Mapper
 public interface UserMapper {
 
-    List<User> findAll();
-
     User findById(@Param("id") Long id);
 
     User findByUsername(@Param("username") String username);
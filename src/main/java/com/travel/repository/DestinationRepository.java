@@ -1,6 +1,7 @@
 package com.travel.repository;
 
 import com.travel.entity.Destination;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,8 +12,16 @@ import java.util.List;
 @Repository
 public interface DestinationRepository extends JpaRepository<Destination, Long> {
     
+    List<Destination> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
     List<Destination> findByActive(boolean active);
     
+    @Query("SELECT d.id FROM Destination d ORDER BY d.id")
+    List<Long> findAllIds();
+    
+    @Query("SELECT d.id FROM Destination d WHERE d.active = true ORDER BY d.id")
+    List<Long> findActiveIds();
+    
     List<Destination> findByCountry(String country);
     
     List<Destination> findByType(Destination.DestinationType type);
@@ -27,4 +36,25 @@ public interface DestinationRepository extends JpaRepository<Destination, Long>
     
     @Query("SELECT d FROM Destination d WHERE d.region = :region AND d.active = true")
     List<Destination> findByRegionAndActive(@Param("region") String region);
+    
+    @Query("SELECT d.id AS id, d.name AS name, d.description AS description FROM Destination d")
+    List<SearchTextView> findAllSearchTexts();
+    
+    @Query("SELECT t.destination.id AS destinationId, COUNT(r) AS reservationCount " +
+           "FROM Reservation r JOIN r.tour t GROUP BY t.destination.id")
+    List<PopularityView> findReservationCounts();
+    
+    interface SearchTextView {
+        Long getId();
+        
+        String getName();
+        
+        String getDescription();
+    }
+    
+    interface PopularityView {
+        Long getDestinationId();
+        
+        Long getReservationCount();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.travel.repository;
+
+import com.travel.entity.InventoryLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface InventoryLeaseRepository extends JpaRepository<InventoryLease, String> {
+    
+    @Modifying
+    @Query("UPDATE InventoryLease l SET l.ownerId = :ownerId, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.ownerId = :ownerId OR l.expiresAt < :now)")
+    int claim(@Param("name") String name, @Param("ownerId") String ownerId,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query(value = "INSERT INTO inventory_leases (name, owner_id, expires_at) VALUES (:name, :ownerId, :expiresAt)",
+           nativeQuery = true)
+    int insert(@Param("name") String name, @Param("ownerId") String ownerId,
+               @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("UPDATE InventoryLease l SET l.expiresAt = :now WHERE l.name = :name AND l.ownerId = :ownerId")
+    int release(@Param("name") String name, @Param("ownerId") String ownerId, @Param("now") LocalDateTime now);
+}
@@ -1,20 +1,51 @@
 package com.travel.repository;
 
+import com.travel.dto.ReservationViewDto;
 import com.travel.entity.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     
+    /** APIが返す列だけをユーザー・ツアー・目的地と結合して1回で取得する（遅延ロードなし） */
+    String VIEW_QUERY = "SELECT new com.travel.dto.ReservationViewDto(r.id, u.id, u.username, u.fullName, " +
+            "t.id, t.name, t.startDate, t.endDate, d.name, d.country, r.numberOfPeople, r.totalPrice, " +
+            "r.status, r.paymentStatus, r.specialRequests, r.contactPhone, r.contactEmail, r.createdAt, r.updatedAt) " +
+            "FROM Reservation r JOIN r.user u JOIN r.tour t JOIN t.destination d ";
+    
+    @Query(VIEW_QUERY + "WHERE r.id > :afterId ORDER BY r.id")
+    List<ReservationViewDto> findViewsAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(VIEW_QUERY + "WHERE r.id = :id")
+    Optional<ReservationViewDto> findViewById(@Param("id") Long id);
+    
+    @Query(VIEW_QUERY + "WHERE u.id = :userId ORDER BY r.id")
+    List<ReservationViewDto> findViewsByUserId(@Param("userId") Long userId);
+    
+    @Query(VIEW_QUERY + "WHERE t.id = :tourId ORDER BY r.id")
+    List<ReservationViewDto> findViewsByTourId(@Param("tourId") Long tourId);
+    
+    @Query(VIEW_QUERY + "WHERE t.id IN :tourIds ORDER BY t.startDate, r.id")
+    List<ReservationViewDto> findViewsByTourIdIn(@Param("tourIds") Collection<Long> tourIds);
+    
     List<Reservation> findByUserId(Long userId);
     
+    boolean existsByIdAndUserId(Long id, Long userId);
+    
     List<Reservation> findByTourId(Long tourId);
     
     List<Reservation> findByStatus(Reservation.ReservationStatus status);
@@ -26,6 +57,14 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r WHERE r.createdAt >= :startDate")
     List<Reservation> findByCreatedAtAfter(@Param("startDate") LocalDateTime startDate);
     
+    @Query("SELECT r FROM Reservation r WHERE r.createdAt >= :startDate AND r.createdAt <= :endDate ORDER BY r.createdAt, r.id")
+    List<Reservation> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT r.id AS id, r.createdAt AS createdAt, r.status AS status FROM Reservation r " +
+           "WHERE r.createdAt >= :startDate")
+    List<CreationView> findCreationViewsSince(@Param("startDate") LocalDateTime startDate);
+    
     @Query("SELECT r FROM Reservation r WHERE r.totalPrice >= :minPrice")
     List<Reservation> findByTotalPriceGreaterThanEqual(@Param("minPrice") BigDecimal minPrice);
     
@@ -41,7 +80,27 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT SUM(r.totalPrice) FROM Reservation r WHERE r.status = 'CONFIRMED' AND r.paymentStatus = 'PAID'")
     BigDecimal getTotalRevenue();
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.user u JOIN FETCH r.tour t JOIN FETCH t.destination d " +
+           "WHERE (:status IS NULL OR r.status = :status) " +
+           "AND (:paymentStatus IS NULL OR r.paymentStatus = :paymentStatus) " +
+           "AND (:country IS NULL OR d.country = :country) ORDER BY r.id")
+    Stream<Reservation> streamForExport(@Param("status") Reservation.ReservationStatus status,
+                                       @Param("paymentStatus") Reservation.PaymentStatus paymentStatus,
+                                       @Param("country") String country);
+    
     @Query("SELECT r FROM Reservation r WHERE r.tour.startDate BETWEEN :startDate AND :endDate")
     List<Reservation> findByTourStartDateBetween(@Param("startDate") java.time.LocalDate startDate, 
                                                  @Param("endDate") java.time.LocalDate endDate);
-} 
\ No newline at end of file
+    
+    interface CreationView {
+        Long getId();
+        
+        LocalDateTime getCreatedAt();
+        
+        Reservation.ReservationStatus getStatus();
+    }
+}
\ No newline at end of file
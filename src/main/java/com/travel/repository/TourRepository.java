@@ -1,18 +1,47 @@
 package com.travel.repository;
 
+import com.travel.dto.TourViewDto;
 import com.travel.entity.Tour;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TourRepository extends JpaRepository<Tour, Long> {
     
+    /** APIが返す列だけを目的地と結合して1回で取得する（遅延ロードなし） */
+    String VIEW_QUERY = "SELECT new com.travel.dto.TourViewDto(t.id, t.name, t.description, t.price, t.duration, " +
+            "t.maxCapacity, t.currentCapacity, t.startDate, t.endDate, t.type, t.status, t.imageUrl, " +
+            "d.id, d.name, d.country, d.city) FROM Tour t JOIN t.destination d ";
+    
+    @Query(VIEW_QUERY + "WHERE t.id > :afterId ORDER BY t.id")
+    List<TourViewDto> findViewsAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query(VIEW_QUERY + "WHERE t.id = :id")
+    Optional<TourViewDto> findViewById(@Param("id") Long id);
+    
+    @Query(VIEW_QUERY + "WHERE t.id IN :ids")
+    List<TourViewDto> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT t.id FROM Tour t ORDER BY t.id")
+    List<Long> findAllIds();
+    
+    @Query("SELECT t.id FROM Tour t WHERE t.currentCapacity > 0 AND t.status = 'AVAILABLE' ORDER BY t.id")
+    List<Long> findAvailableIds();
+    
+    @Query("SELECT t.id FROM Tour t WHERE t.destination.id = :destinationId")
+    List<Long> findIdsByDestinationId(@Param("destinationId") Long destinationId);
+    
     List<Tour> findByDestinationId(Long destinationId);
     
     List<Tour> findByStatus(Tour.TourStatus status);
@@ -41,4 +70,128 @@ public interface TourRepository extends JpaRepository<Tour, Long> {
     
     @Query("SELECT t FROM Tour t WHERE t.price <= :maxPrice AND t.status = 'AVAILABLE' ORDER BY t.price")
     List<Tour> findAvailableToursByMaxPrice(@Param("maxPrice") BigDecimal maxPrice);
+    
+    @Query("SELECT t.id AS id, t.currentCapacity AS currentCapacity FROM Tour t")
+    List<CapacityView> findAllCapacities();
+    
+    @Query("SELECT t.id AS id, t.currentCapacity AS currentCapacity, t.maxCapacity AS maxCapacity, " +
+           "t.status AS status FROM Tour t WHERE t.id = :id")
+    Optional<InventoryView> findInventoryViewById(@Param("id") Long id);
+    
+    @Query("SELECT t.id AS id, t.name AS name, t.description AS description FROM Tour t")
+    List<SearchTextView> findAllSearchTexts();
+    
+    @Query("SELECT t.id AS id, t.price AS price, t.duration AS duration, t.type AS type, t.status AS status, " +
+           "t.startDate AS startDate, d.country AS country, d.region AS region FROM Tour t JOIN t.destination d")
+    List<FacetView> findAllFacetViews();
+    
+    @Query("SELECT t.id AS id, t.price AS price, t.duration AS duration, t.type AS type, t.status AS status, " +
+           "t.startDate AS startDate, d.country AS country, d.region AS region FROM Tour t JOIN t.destination d " +
+           "WHERE t.id = :id")
+    Optional<FacetView> findFacetViewById(@Param("id") Long id);
+    
+    @Query("SELECT t.id AS id, t.price AS price, t.duration AS duration, t.type AS type, t.status AS status, " +
+           "t.startDate AS startDate, d.country AS country, d.region AS region FROM Tour t JOIN t.destination d " +
+           "WHERE t.id IN :ids")
+    List<FacetView> findFacetViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT t.id AS id, d.id AS destinationId, t.startDate AS startDate, t.endDate AS endDate " +
+           "FROM Tour t LEFT JOIN t.destination d")
+    List<DateView> findAllDateViews();
+    
+    @Query("SELECT t.id AS id, d.id AS destinationId, t.startDate AS startDate, t.endDate AS endDate " +
+           "FROM Tour t LEFT JOIN t.destination d WHERE t.id = :id")
+    Optional<DateView> findDateViewById(@Param("id") Long id);
+    
+    @Query("SELECT t.id AS id, t.price AS price, t.status AS status FROM Tour t")
+    List<PriceView> findAllPriceViews();
+    
+    @Query("SELECT t.id AS id, t.price AS price, t.status AS status FROM Tour t WHERE t.id = :id")
+    Optional<PriceView> findPriceViewById(@Param("id") Long id);
+    
+    @Query("SELECT t.id AS id, t.price AS price, t.status AS status FROM Tour t WHERE t.id IN :ids")
+    List<PriceView> findPriceViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Tour t SET t.currentCapacity = :capacity, t.status = :status, t.updatedAt = :updatedAt " +
+           "WHERE t.id = :id")
+    int updateCapacityAndStatus(@Param("id") Long id, @Param("capacity") int capacity,
+                                @Param("status") Tour.TourStatus status, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("UPDATE Tour t SET t.status = :status, t.updatedAt = :updatedAt WHERE t.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") Tour.TourStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying
+    @Query("UPDATE Tour t SET t.currentCapacity = t.currentCapacity - :seats, " +
+           "t.status = CASE WHEN t.currentCapacity - :seats = 0 THEN 'FULL' ELSE t.status END " +
+           "WHERE t.id = :id AND t.currentCapacity >= :seats AND t.status = 'AVAILABLE'")
+    int decrementCapacityIfAvailable(@Param("id") Long id, @Param("seats") int seats);
+    
+    @Modifying
+    @Query("UPDATE Tour t SET t.currentCapacity = t.currentCapacity + :seats, " +
+           "t.status = CASE WHEN t.status = 'FULL' THEN 'AVAILABLE' ELSE t.status END " +
+           "WHERE t.id = :id AND t.currentCapacity + :seats <= t.maxCapacity")
+    int incrementCapacity(@Param("id") Long id, @Param("seats") int seats);
+    
+    interface CapacityView {
+        Long getId();
+        
+        Integer getCurrentCapacity();
+    }
+    
+    interface InventoryView {
+        Long getId();
+        
+        Integer getCurrentCapacity();
+        
+        Integer getMaxCapacity();
+        
+        Tour.TourStatus getStatus();
+    }
+    
+    interface SearchTextView {
+        Long getId();
+        
+        String getName();
+        
+        String getDescription();
+    }
+    
+    interface FacetView {
+        Long getId();
+        
+        BigDecimal getPrice();
+        
+        Integer getDuration();
+        
+        Tour.TourType getType();
+        
+        Tour.TourStatus getStatus();
+        
+        LocalDate getStartDate();
+        
+        String getCountry();
+        
+        String getRegion();
+    }
+    
+    interface PriceView {
+        Long getId();
+        
+        BigDecimal getPrice();
+        
+        Tour.TourStatus getStatus();
+    }
+    
+    interface DateView {
+        Long getId();
+        
+        Long getDestinationId();
+        
+        LocalDate getStartDate();
+        
+        LocalDate getEndDate();
+    }
 } 
\ No newline at end of file
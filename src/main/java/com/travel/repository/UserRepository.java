@@ -1,17 +1,21 @@
 package com.travel.repository;
 
 import com.travel.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
     Optional<User> findByUsername(String username);
     
     Optional<User> findByEmail(String email);
@@ -20,6 +24,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByEmail(String email);
     
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
     List<User> findByRole(User.UserRole role);
     
     List<User> findByEnabled(boolean enabled);
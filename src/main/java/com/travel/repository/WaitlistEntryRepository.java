@@ -0,0 +1,31 @@
+package com.travel.repository;
+
+import com.travel.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    
+    List<WaitlistEntry> findByTourIdAndStatusOrderByIdAsc(Long tourId, WaitlistEntry.WaitlistStatus status);
+    
+    List<WaitlistEntry> findByUserIdAndStatus(Long userId, WaitlistEntry.WaitlistStatus status);
+    
+    @Query("SELECT w.id AS id, w.tour.id AS tourId, w.user.id AS userId, w.numberOfPeople AS numberOfPeople " +
+           "FROM WaitlistEntry w WHERE w.status = 'WAITING' ORDER BY w.id")
+    List<WaitingView> findAllWaiting();
+    
+    interface WaitingView {
+        Long getId();
+        
+        Long getTourId();
+        
+        Long getUserId();
+        
+        Integer getNumberOfPeople();
+    }
+}
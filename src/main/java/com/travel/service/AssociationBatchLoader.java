@@ -0,0 +1,138 @@
+package com.travel.service;
+
+import com.travel.entity.Destination;
+import com.travel.entity.Reservation;
+import com.travel.entity.Tour;
+import com.travel.entity.User;
+import com.travel.repository.DestinationRepository;
+import com.travel.repository.TourRepository;
+import com.travel.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 関連エンティティのバッチローダー（リクエストスコープ）
+ *
+ * 予約一覧の描画に必要なツアー・目的地・ユーザーのIDを集め、
+ * 種類ごとに1回のfindAllByIdでまとめて読み込みます。読み込まれたエンティティは
+ * 永続化コンテキストに載るため、予約が持つ遅延ロードのプロキシは追加のSELECTなしで初期化されます。
+ *
+ * 読み込んだエンティティはリクエストの間メモ化され、同じリクエスト内の
+ * 後続の一覧やID指定の参照では再度問い合わせません。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Component
+@RequestScope
+public class AssociationBatchLoader {
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Tour> tours = new HashMap<>();
+
+    private final Map<Long, Destination> destinations = new HashMap<>();
+
+    private final Map<Long, User> users = new HashMap<>();
+
+    /**
+     * 予約のユーザー・ツアー・目的地をまとめて読み込みます。
+     *
+     * @param reservations 予約の一覧
+     * @return 引数の一覧（関連が初期化済み）
+     */
+    public List<Reservation> loadAssociations(List<Reservation> reservations) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> tourIds = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            collect(reservation.getUser(), User::getId, userIds);
+            collect(reservation.getTour(), Tour::getId, tourIds);
+        }
+        load(userIds, userRepository, users, User::getId);
+        load(tourIds, tourRepository, tours, Tour::getId);
+
+        Set<Long> destinationIds = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            Tour tour = reservation.getTour();
+            if (tour != null) {
+                collect(tour.getDestination(), Destination::getId, destinationIds);
+            }
+        }
+        load(destinationIds, destinationRepository, destinations, Destination::getId);
+        return reservations;
+    }
+
+    /**
+     * ツアーを返します。このリクエストで読み込み済みの場合は問い合わせません。
+     *
+     * @param id ツアーID
+     * @return ツアー、存在しない場合はnull
+     */
+    public Tour getTour(Long id) {
+        return get(id, tourRepository, tours, Tour::getId);
+    }
+
+    /**
+     * 目的地を返します。このリクエストで読み込み済みの場合は問い合わせません。
+     *
+     * @param id 目的地ID
+     * @return 目的地、存在しない場合はnull
+     */
+    public Destination getDestination(Long id) {
+        return get(id, destinationRepository, destinations, Destination::getId);
+    }
+
+    /**
+     * ユーザーを返します。このリクエストで読み込み済みの場合は問い合わせません。
+     *
+     * @param id ユーザーID
+     * @return ユーザー、存在しない場合はnull
+     */
+    public User getUser(Long id) {
+        return get(id, userRepository, users, User::getId);
+    }
+
+    private static <T> void collect(T association, Function<T, Long> idOf, Set<Long> ids) {
+        // Reading the id of a proxy does not initialize it; initialized ones need no loading
+        if (association != null && !Hibernate.isInitialized(association)) {
+            ids.add(idOf.apply(association));
+        }
+    }
+
+    private static <T> void load(Collection<Long> ids, JpaRepository<T, Long> repository, Map<Long, T> loaded,
+                                 Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (T entity : repository.findAllById(ids)) {
+            loaded.put(idOf.apply(entity), entity);
+        }
+    }
+
+    private static <T> T get(Long id, JpaRepository<T, Long> repository, Map<Long, T> loaded, Function<T, Long> idOf) {
+        T entity = loaded.get(id);
+        if (entity == null) {
+            load(List.of(id), repository, loaded, idOf);
+            entity = loaded.get(id);
+        }
+        return entity;
+    }
+}
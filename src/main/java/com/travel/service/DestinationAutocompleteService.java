@@ -0,0 +1,243 @@
+package com.travel.service;
+
+import com.travel.dto.AutocompleteSuggestionDto;
+import com.travel.entity.Destination;
+import com.travel.repository.DestinationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 目的地の入力補完サービス
+ *
+ * 有効な目的地の名称・都市・地域・国をプレフィックス木に登録し、
+ * 入力途中の文字列に対する補完候補を人気順に返します。
+ * 目的地の人気は予約件数に基づき、都市・地域・国の人気はそこに含まれる目的地の合計です。
+ *
+ * 目的地の登録・更新・削除・有効/無効の切り替え時に、該当する目的地の分だけ更新します。
+ * 予約件数による重みは一定間隔で再計算します。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class DestinationAutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(DestinationAutocompleteService.class);
+
+    /**
+     * 補完候補の種別
+     */
+    public enum SuggestionType {
+        DESTINATION, CITY, REGION, COUNTRY
+    }
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    /** 1回の補完で返す最大候補数 */
+    @Value("${travel.autocomplete.top-k:10}")
+    private int topK;
+
+    private PrefixTrie<AutocompleteSuggestionDto> trie;
+
+    /** 目的地IDごとの登録内容 */
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    /** 候補キーごとの集計（同じ都市・国を持つ目的地の件数と重みの合計） */
+    private final Map<String, Term> terms = new HashMap<>();
+
+    /** 目的地IDごとの予約件数 */
+    private Map<Long, Long> reservationCounts = Map.of();
+
+    private volatile List<String> activeCountries = List.of();
+
+    @PostConstruct
+    public void init() {
+        trie = new PrefixTrie<>(topK, Comparator.comparingLong(AutocompleteSuggestionDto::getWeight).reversed()
+                .thenComparingInt(suggestion -> suggestion.getText().length())
+                .thenComparing(AutocompleteSuggestionDto::getText));
+    }
+
+    /**
+     * 起動時に有効な目的地を読み込みます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSuggestions() {
+        Map<Long, Long> counts = loadReservationCounts();
+        List<Destination> destinations = destinationRepository.findByActive(true);
+        synchronized (this) {
+            reservationCounts = counts;
+            for (Destination destination : destinations) {
+                apply(destination.getId(), Contribution.of(destination));
+            }
+        }
+        log.info("Loaded autocomplete suggestions for {} destinations", destinations.size());
+    }
+
+    /**
+     * 入力途中の文字列に対する補完候補を返します。
+     *
+     * @param query 入力途中の文字列
+     * @param limit 最大件数（nullまたは上限超過の場合は上限）
+     * @return 人気順の補完候補
+     */
+    public List<AutocompleteSuggestionDto> complete(String query, Integer limit) {
+        String prefix = NGramIndex.normalize(query).strip();
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int size = limit == null || limit <= 0 ? topK : Math.min(limit, topK);
+        return trie.complete(prefix, size);
+    }
+
+    /**
+     * 有効な目的地が存在する国を名前順に返します。
+     *
+     * @return 国の一覧
+     */
+    public List<String> getActiveCountries() {
+        return activeCountries;
+    }
+
+    /**
+     * 目的地の登録内容を更新します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param destination 目的地
+     */
+    public void refresh(Destination destination) {
+        Long id = destination.getId();
+        Contribution contribution = destination.isActive() ? Contribution.of(destination) : null;
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                apply(id, contribution);
+            }
+        });
+    }
+
+    /**
+     * 目的地を候補から削除します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param destinationId 目的地ID
+     */
+    public void remove(Long destinationId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                apply(destinationId, null);
+            }
+        });
+    }
+
+    /**
+     * 予約件数を読み直し、候補の重みを更新します。
+     */
+    @Scheduled(fixedDelayString = "${travel.autocomplete.popularity-refresh-ms:600000}",
+            initialDelayString = "${travel.autocomplete.popularity-refresh-ms:600000}")
+    public void refreshPopularity() {
+        Map<Long, Long> counts = loadReservationCounts();
+        synchronized (this) {
+            reservationCounts = counts;
+            for (Map.Entry<Long, Contribution> entry : Map.copyOf(contributions).entrySet()) {
+                apply(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Map<Long, Long> loadReservationCounts() {
+        return destinationRepository.findReservationCounts().stream()
+                .collect(Collectors.toMap(DestinationRepository.PopularityView::getDestinationId,
+                        DestinationRepository.PopularityView::getReservationCount));
+    }
+
+    private void apply(Long destinationId, Contribution next) {
+        Contribution previous = contributions.remove(destinationId);
+        if (previous != null) {
+            adjust(destinationId, previous, -1, -previous.weight);
+        }
+        if (next != null) {
+            next.weight = 1 + reservationCounts.getOrDefault(destinationId, 0L);
+            contributions.put(destinationId, next);
+            adjust(destinationId, next, 1, next.weight);
+        }
+        activeCountries = terms.values().stream()
+                .filter(term -> term.type == SuggestionType.COUNTRY)
+                .map(term -> term.label)
+                .sorted()
+                .toList();
+    }
+
+    private void adjust(Long destinationId, Contribution contribution, int countDelta, long weightDelta) {
+        adjust(SuggestionType.DESTINATION, contribution.name, destinationId, countDelta, weightDelta);
+        adjust(SuggestionType.CITY, contribution.city, null, countDelta, weightDelta);
+        adjust(SuggestionType.REGION, contribution.region, null, countDelta, weightDelta);
+        adjust(SuggestionType.COUNTRY, contribution.country, null, countDelta, weightDelta);
+    }
+
+    private void adjust(SuggestionType type, String text, Long destinationId, int countDelta, long weightDelta) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String key = NGramIndex.normalize(text).strip();
+        // Destinations stay distinct even with equal names; cities, regions and countries are merged
+        String entryKey = type == SuggestionType.DESTINATION ? type + ":" + destinationId : type + ":" + key;
+        Term term = terms.computeIfAbsent(entryKey, k -> new Term(type, text.strip()));
+        term.count += countDelta;
+        term.weight += weightDelta;
+        if (term.count <= 0) {
+            terms.remove(entryKey);
+            trie.remove(key, entryKey);
+        } else {
+            trie.put(key, entryKey, new AutocompleteSuggestionDto(term.label, type.name(), destinationId, term.weight));
+        }
+    }
+
+    /**
+     * 目的地1件分の登録内容
+     */
+    private static final class Contribution {
+        final String name;
+        final String city;
+        final String region;
+        final String country;
+        long weight;
+
+        Contribution(String name, String city, String region, String country) {
+            this.name = name;
+            this.city = city;
+            this.region = region;
+            this.country = country;
+        }
+
+        static Contribution of(Destination destination) {
+            return new Contribution(destination.getName(), destination.getCity(), destination.getRegion(),
+                    destination.getCountry());
+        }
+    }
+
+    /**
+     * 候補キーごとの集計
+     */
+    private static final class Term {
+        final SuggestionType type;
+        final String label;
+        int count;
+        long weight;
+
+        Term(SuggestionType type, String label) {
+            this.type = type;
+            this.label = label;
+        }
+    }
+}
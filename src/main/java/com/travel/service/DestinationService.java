@@ -1,10 +1,18 @@
 package com.travel.service;
 
+import com.travel.cache.CacheNames;
+import com.travel.cache.EntityCacheTemplate;
+import com.travel.dto.AutocompleteSuggestionDto;
+import com.travel.dto.KeysetPage;
 import com.travel.entity.Destination;
 import com.travel.repository.DestinationRepository;
+import com.travel.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,31 +23,74 @@ import java.util.Optional;
 @Transactional
 public class DestinationService {
     
+    private static final Logger log = LoggerFactory.getLogger(DestinationService.class);
+    
     @Autowired
     private DestinationRepository destinationRepository;
     
-    @Cacheable("destinations")
+    @Autowired
+    private TourRepository tourRepository;
+    
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+    
+    @Autowired
+    private EntityCacheTemplate entityCache;
+    
+    @Autowired
+    private DestinationAutocompleteService autocompleteService;
+    
+    @Autowired
+    private TourCatalogSnapshot tourCatalogSnapshot;
+    
+    /** 目的地名・説明文の検索用インデックス */
+    private final NGramIndex searchIndex = new NGramIndex();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadSearchIndex() {
+        for (DestinationRepository.SearchTextView view : destinationRepository.findAllSearchTexts()) {
+            searchIndex.put(view.getId(), view.getName(), view.getDescription());
+        }
+        log.info("Indexed {} destinations for search", searchIndex.size());
+    }
+    
     public List<Destination> getAllDestinations() {
-        return destinationRepository.findAll();
+        return resolveDestinations(entityCache.getIds(CacheNames.DESTINATION_QUERIES, "all",
+                destinationRepository::findAllIds));
+    }
+    
+    public KeysetPage<Destination> getDestinationsPage(String cursor, Integer size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        List<Destination> rows = destinationRepository.findByIdGreaterThanOrderByIdAsc(keysetPaginator.afterId(cursor),
+                Limit.of(pageSize + 1));
+        return keysetPaginator.page(rows, pageSize, Destination::getId);
     }
     
-    @Cacheable("destinations")
     public List<Destination> getActiveDestinations() {
-        return destinationRepository.findByActive(true);
+        return resolveDestinations(entityCache.getIds(CacheNames.DESTINATION_QUERIES, "active",
+                destinationRepository::findActiveIds));
     }
     
     public Optional<Destination> getDestinationById(Long id) {
-        return destinationRepository.findById(id);
+        return entityCache.get(CacheNames.DESTINATIONS, id, destinationRepository::findById);
+    }
+    
+    private List<Destination> resolveDestinations(List<Long> ids) {
+        // Cached destinations by id; the misses are loaded with one primary-key IN query
+        return entityCache.getAll(CacheNames.DESTINATIONS, ids, destinationRepository::findAllById,
+                Destination::getId);
     }
     
     public Destination createDestination(Destination destination) {
-        if (destinationRepository.findByNameOrDescriptionContaining(destination.getName()).size() > 0) {
+        if (!searchIndex.search(destination.getName()).isEmpty()) {
             throw new RuntimeException("Destination with similar name already exists");
         }
-        return destinationRepository.save(destination);
+        Destination savedDestination = destinationRepository.save(destination);
+        indexDestination(savedDestination);
+        return savedDestination;
     }
     
-    @CacheEvict(value = "destinations", allEntries = true)
     public Destination updateDestination(Long id, Destination destinationDetails) {
         Destination destination = destinationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Destination not found"));
@@ -53,14 +104,39 @@ public class DestinationService {
         destination.setActive(destinationDetails.isActive());
         destination.setImageUrl(destinationDetails.getImageUrl());
         
-        return destinationRepository.save(destination);
+        Destination savedDestination = destinationRepository.save(destination);
+        indexDestination(savedDestination);
+        return savedDestination;
     }
     
-    @CacheEvict(value = "destinations", allEntries = true)
     public void deleteDestination(Long id) {
         Destination destination = destinationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Destination not found"));
         destinationRepository.delete(destination);
+        TransactionCallbacks.afterCommit(() -> searchIndex.remove(id));
+        autocompleteService.remove(id);
+        evictDestination(id);
+    }
+    
+    private void indexDestination(Destination destination) {
+        Long id = destination.getId();
+        String name = destination.getName();
+        String description = destination.getDescription();
+        TransactionCallbacks.afterCommit(() -> searchIndex.put(id, name, description));
+        autocompleteService.refresh(destination);
+        evictDestination(id);
+    }
+    
+    private void evictDestination(Long id) {
+        // Cached tour views carry the destination name, country and city,
+        // and the catalog snapshot filters tours by the destination country and region
+        List<Long> tourIds = tourRepository.findIdsByDestinationId(id);
+        tourCatalogSnapshot.refreshAll(tourIds);
+        TransactionCallbacks.afterCommit(() -> {
+            entityCache.evict(CacheNames.DESTINATIONS, List.of(id));
+            entityCache.clear(CacheNames.DESTINATION_QUERIES);
+            entityCache.evict(CacheNames.TOURS, tourIds);
+        });
     }
     
     public List<Destination> getDestinationsByCountry(String country) {
@@ -76,11 +152,16 @@ public class DestinationService {
     }
     
     public List<Destination> searchDestinations(String name) {
-        return destinationRepository.findByNameOrDescriptionContaining(name);
+        // Resolve the ranked ids through the per-id cache and keep the ranking
+        return resolveDestinations(searchIndex.search(name));
+    }
+    
+    public List<AutocompleteSuggestionDto> autocomplete(String query, Integer limit) {
+        return autocompleteService.complete(query, limit);
     }
     
     public List<String> getAllActiveCountries() {
-        return destinationRepository.findAllActiveCountries();
+        return autocompleteService.getActiveCountries();
     }
     
     public List<Destination> getDestinationsByRegion(String region) {
@@ -91,6 +172,7 @@ public class DestinationService {
         Destination destination = destinationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Destination not found"));
         destination.setActive(!destination.isActive());
-        destinationRepository.save(destination);
+        autocompleteService.refresh(destinationRepository.save(destination));
+        evictDestination(id);
     }
 } 
\ No newline at end of file
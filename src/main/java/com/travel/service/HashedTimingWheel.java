@@ -0,0 +1,162 @@
+package com.travel.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ハッシュ化タイミングホイール
+ *
+ * 期限付きの要素を「期限ティック mod ホイールサイズ」のバケットに振り分け、
+ * 1ティックごとに1バケットだけを走査して期限切れ要素を処理します。
+ * 登録・取消はO(1)で、期限処理のコストは未処理要素の総数に依存しないため、
+ * 大量の短命なタイマー（座席の仮押さえなど）を低コストで管理できます。
+ *
+ * バケットはティックスレッドだけが操作し、登録は並行キュー経由で受け渡します。
+ *
+ * @param <T> タイマーに紐づく要素の型
+ * @author Travel System
+ * @version 1.0
+ */
+final class HashedTimingWheel<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final List<Queue<Timeout<T>>> buckets;
+
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private final Consumer<T> expiryHandler;
+
+    private final ScheduledExecutorService ticker;
+
+    private final long startNanos = System.nanoTime();
+
+    private long currentTick;
+
+    /**
+     * @param tickDuration 1ティックの長さ
+     * @param unit tickDurationの単位
+     * @param wheelSize バケット数（2のべき乗に切り上げられます）
+     * @param expiryHandler 期限切れ時に呼び出される処理（ティックスレッドで実行）
+     * @param threadName ティックスレッド名
+     */
+    HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize, Consumer<T> expiryHandler, String threadName) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.expiryHandler = expiryHandler;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickDuration, tickDuration, unit);
+    }
+
+    /**
+     * 要素を指定時間後に期限切れとなるよう登録します。
+     *
+     * @param item 要素
+     * @param delay 期限までの時間
+     * @param unit delayの単位
+     * @return 取消に使用するハンドル
+     */
+    Timeout<T> schedule(T item, long delay, TimeUnit unit) {
+        long deadlineTick = (System.nanoTime() - startNanos + unit.toNanos(delay) + tickNanos - 1) / tickNanos;
+        Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * ホイールを停止します。未処理の要素は期限切れ処理されません。
+     */
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    private void advance() {
+        // Catch up on ticks missed because the scheduler ran late
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+        while (currentTick <= targetTick) {
+            transferPending();
+            expireBucket(buckets.get((int) (currentTick & mask)));
+            currentTick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long tick = Math.max(timeout.deadlineTick, currentTick);
+            timeout.remainingRounds = (tick - currentTick) / buckets.size();
+            buckets.get((int) (tick & mask)).add(timeout);
+        }
+    }
+
+    private void expireBucket(Queue<Timeout<T>> bucket) {
+        Iterator<Timeout<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<T> timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                try {
+                    expiryHandler.accept(timeout.item);
+                } catch (RuntimeException e) {
+                    // A failing handler must not stop the ticker thread
+                    log.error("Timer expiry handler failed", e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * 登録済みタイマーのハンドル
+     *
+     * @param <T> 要素の型
+     */
+    static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * タイマーを取り消します。バケットからは次の走査時に除去されます。
+         */
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
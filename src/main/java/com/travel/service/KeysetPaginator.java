@@ -0,0 +1,88 @@
+package com.travel.service;
+
+import com.travel.dto.KeysetPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * キーセット（シーク）ページネーションの共通処理
+ *
+ * 一覧は主キーの昇順で返し、次ページは「前ページ最後のIDより大きい行」から読み込みます。
+ * OFFSETを使わないため、何ページ目でも主キー索引の範囲走査1回で済みます。
+ *
+ * 継続トークンは最後のIDを符号化した不透明な文字列で、クライアントは内容に依存しません。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Component
+public class KeysetPaginator {
+
+    private static final String CURSOR_PREFIX = "v1:";
+
+    /** ページサイズ未指定時の件数 */
+    @Value("${travel.pagination.default-size:50}")
+    private int defaultSize;
+
+    /** ページサイズの上限 */
+    @Value("${travel.pagination.max-size:500}")
+    private int maxSize;
+
+    /**
+     * 要求されたページサイズを上限内に収めます。
+     *
+     * @param requestedSize 要求されたページサイズ（nullの場合は既定値）
+     * @return 実際に使用するページサイズ
+     */
+    public int pageSize(Integer requestedSize) {
+        if (requestedSize == null || requestedSize <= 0) {
+            return defaultSize;
+        }
+        return Math.min(requestedSize, maxSize);
+    }
+
+    /**
+     * 継続トークンから、読み込みを開始する直前のIDを取り出します。
+     *
+     * @param cursor 継続トークン（nullの場合は先頭から）
+     * @return 直前のID（このIDより大きい行が次ページ）
+     */
+    public long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * ページサイズより1件多く読み込んだ結果からページを組み立てます。
+     *
+     * @param rows 読み込んだ行（最大 pageSize + 1 件）
+     * @param pageSize ページサイズ
+     * @param idOf 行のIDを取り出す処理
+     * @return ページ（続きがない場合は継続トークンなし）
+     */
+    public <T> KeysetPage<T> page(List<T> rows, int pageSize, Function<T, Long> idOf) {
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        Long lastId = idOf.apply(items.get(pageSize - 1));
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+        return new KeysetPage<>(List.copyOf(items), cursor);
+    }
+}
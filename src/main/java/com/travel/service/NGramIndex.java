@@ -0,0 +1,215 @@
+package com.travel.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * n-gram転置インデックス
+ *
+ * 名称と説明文を1文字・2文字のn-gramに分割し、n-gramごとにIDの集合を保持します。
+ * 検索語のn-gramの集合を積集合で絞り込んだ後、正規化済みの本文で部分一致を確認するため、
+ * 結果は「LIKE %検索語%」と同じ（大文字・小文字と全角・半角は区別しない）になります。
+ * 分かち書きを必要としないため、日本語の部分一致にもそのまま使えます。
+ *
+ * 更新は呼び出し元で直列化される前提で、検索はロックなしで並行に実行できます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+final class NGramIndex {
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    /**
+     * ドキュメントを登録します。登録済みの場合は置き換えます。
+     *
+     * @param id ID
+     * @param name 名称
+     * @param description 説明文
+     */
+    synchronized void put(Long id, String name, String description) {
+        Document document = new Document(normalize(name), normalize(description));
+        Document previous = documents.put(id, document);
+        Set<String> grams = document.grams();
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                if (!grams.contains(gram)) {
+                    removePosting(gram, id);
+                }
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * ドキュメントを削除します。
+     *
+     * @param id ID
+     */
+    synchronized void remove(Long id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                removePosting(gram, id);
+            }
+        }
+    }
+
+    /**
+     * 検索語を含むドキュメントのIDを関連度順に返します。
+     *
+     * 名称の前方一致、名称の部分一致、説明文のみの一致の順に並び、
+     * 同順位では一致位置が前にあり、名称が短いものを優先します。
+     *
+     * @param query 検索語
+     * @return 一致したIDの一覧
+     */
+    List<Long> search(String query) {
+        String term = normalize(query);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+
+        // Start from the rarest gram so the intersection stays small
+        Set<Long> smallest = null;
+        List<Set<Long>> others = new ArrayList<>();
+        for (String gram : queryGrams(term)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                if (smallest != null) {
+                    others.add(smallest);
+                }
+                smallest = ids;
+            } else {
+                others.add(ids);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long id : smallest) {
+            if (!containsAll(others, id)) {
+                continue;
+            }
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            // Bigrams only narrow the candidates; the substring check makes the result exact
+            int namePosition = document.name.indexOf(term);
+            if (namePosition >= 0) {
+                matches.add(new Match(id, namePosition == 0 ? 0 : 1, namePosition, document.name.length()));
+            } else {
+                int descriptionPosition = document.description.indexOf(term);
+                if (descriptionPosition >= 0) {
+                    matches.add(new Match(id, 2, descriptionPosition, document.name.length()));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match match) -> match.rank)
+                .thenComparingInt(match -> match.position)
+                .thenComparingInt(match -> match.length)
+                .thenComparingLong(match -> match.id));
+        return matches.stream().map(match -> match.id).toList();
+    }
+
+    /**
+     * 登録済みのドキュメント数を返します。
+     *
+     * @return ドキュメント数
+     */
+    int size() {
+        return documents.size();
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static boolean containsAll(List<Set<Long>> sets, Long id) {
+        for (Set<Long> ids : sets) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> queryGrams(String term) {
+        Set<String> grams = new HashSet<>();
+        if (term.length() == 1) {
+            grams.add(term);
+        } else {
+            addGrams(term, 2, grams);
+        }
+        return grams;
+    }
+
+    private static void addGrams(String text, int n, Set<String> grams) {
+        for (int i = 0; i + n <= text.length(); i++) {
+            grams.add(text.substring(i, i + n));
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 正規化済みの本文
+     */
+    private static final class Document {
+        final String name;
+        final String description;
+
+        Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String text : new String[] {name, description}) {
+                addGrams(text, 1, grams);
+                addGrams(text, 2, grams);
+            }
+            return grams;
+        }
+    }
+
+    /**
+     * 検索結果1件分の順位付け情報
+     */
+    private static final class Match {
+        final Long id;
+        final int rank;
+        final int position;
+        final int length;
+
+        Match(Long id, int rank, int position, int length) {
+            this.id = id;
+            this.rank = rank;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
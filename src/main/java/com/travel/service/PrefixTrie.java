@@ -0,0 +1,134 @@
+package com.travel.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 上位K件を事前計算したプレフィックス木
+ *
+ * 各ノードに部分木内の重み上位K件を保持しておき、補完候補の取得を
+ * 「接頭辞の長さ分ノードをたどるだけ」で返します。候補数や語彙数には依存しません。
+ *
+ * 登録・削除のたびに、変更した語から根までの経路上のノードの上位K件だけを再計算します。
+ * 更新は直列化され、検索はロックなしで並行に実行できます。
+ *
+ * @param <T> 候補の型
+ * @author Travel System
+ * @version 1.0
+ */
+final class PrefixTrie<T> {
+
+    private final int topK;
+
+    private final Comparator<T> order;
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * @param topK 各ノードに保持する候補数
+     * @param order 候補の優先順（先頭ほど優先）
+     */
+    PrefixTrie(int topK, Comparator<T> order) {
+        this.topK = topK;
+        this.order = order;
+    }
+
+    /**
+     * 候補を登録します。同じ語・同じ識別キーの候補は置き換えます。
+     *
+     * @param key 正規化済みの語
+     * @param entryKey 語の中で候補を識別するキー
+     * @param value 候補
+     */
+    synchronized void put(String key, String entryKey, T value) {
+        List<Node<T>> path = path(key, true);
+        path.get(path.size() - 1).entries.put(entryKey, value);
+        recompute(path);
+    }
+
+    /**
+     * 候補を削除します。
+     *
+     * @param key 正規化済みの語
+     * @param entryKey 語の中で候補を識別するキー
+     */
+    synchronized void remove(String key, String entryKey) {
+        List<Node<T>> path = path(key, false);
+        if (path == null) {
+            return;
+        }
+        path.get(path.size() - 1).entries.remove(entryKey);
+        recompute(path);
+        // Drop nodes that no longer lead to any entry
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node<T> node = path.get(i);
+            if (!node.entries.isEmpty() || !node.children.isEmpty()) {
+                break;
+            }
+            path.get(i - 1).children.remove(key.charAt(i - 1));
+        }
+    }
+
+    /**
+     * 接頭辞に一致する候補を優先順に返します。
+     *
+     * @param prefix 正規化済みの接頭辞
+     * @param limit 最大件数（topKを超える分は返しません）
+     * @return 候補の一覧
+     */
+    List<T> complete(String prefix, int limit) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<T> top = node.top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    private List<Node<T>> path(String key, boolean create) {
+        List<Node<T>> path = new ArrayList<>(key.length() + 1);
+        Node<T> node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node<T> child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                child = new Node<>();
+                node.children.put(key.charAt(i), child);
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void recompute(List<Node<T>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node<T> node = path.get(i);
+            List<T> candidates = new ArrayList<>(node.entries.values());
+            for (Node<T> child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(order);
+            // Publish an immutable list so readers never see a partial update
+            node.top = List.copyOf(candidates.size() > topK ? candidates.subList(0, topK) : candidates);
+        }
+    }
+
+    /**
+     * 木のノード
+     */
+    private static final class Node<T> {
+        final Map<Character, Node<T>> children = new ConcurrentHashMap<>();
+        final Map<String, T> entries = new ConcurrentHashMap<>();
+        volatile List<T> top = List.of();
+    }
+}
@@ -0,0 +1,247 @@
+package com.travel.service;
+
+import com.travel.entity.Reservation;
+import com.travel.repository.ReservationRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 予約のグループコミット書き込みクラス
+ *
+ * 同時に発生した予約のINSERTをキューに集め、最大件数または
+ * 待機時間（リンガー）に達した時点で1トランザクションにまとめて保存します。
+ * バッチサイズを大きくするとコミット回数が減り、リンガーを短くすると
+ * 個々の予約の応答時間が短くなります。
+ * 1回のコミットにまとめた件数はメトリクス（travel.reservation.batch.size）に記録され、
+ * 平均バッチサイズもそこから参照できます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class ReservationBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationBatchWriter.class);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** グループコミットを有効にするか（無効時は呼び出し元で直接保存） */
+    @Value("${travel.reservation.batch-writer.enabled:true}")
+    private boolean enabled;
+
+    /** 1回のコミットにまとめる最大件数 */
+    @Value("${travel.reservation.batch-writer.max-batch-size:50}")
+    private int maxBatchSize;
+
+    /** 最初の1件を受け取ってから後続を待つ最大時間（ミリ秒） */
+    @Value("${travel.reservation.batch-writer.linger-ms:5}")
+    private long lingerMs;
+
+    /** 呼び出し元が書き込みを待つ最大時間（ミリ秒、書き込みトランザクションのタイムアウトも兼ねる） */
+    @Value("${travel.reservation.batch-writer.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    private DistributionSummary batchSizeSummary;
+
+    private volatile boolean running;
+
+    /** 停止処理が始まった後の書き込み要求は受け付けない */
+    private volatile boolean stopped;
+
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        batchSizeSummary = DistributionSummary.builder("travel.reservation.batch.size")
+                .description("Number of reservations persisted per group commit")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "ReservationBatchWriter");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Anything still queued is written synchronously so no caller is left waiting
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 予約を保存し、採番されるまで待機します。
+     *
+     * 待機時間の上限を超えた場合、まだキューにある書き込みは取り消して例外を投げます。
+     * 既に書き込み中の場合は、同じ上限のトランザクションタイムアウトで打ち切られるまで待ちます。
+     * 停止処理の開始後は受け付けず、例外を投げます。
+     *
+     * @param reservation 保存する予約
+     * @return 保存された予約
+     */
+    public Reservation write(Reservation reservation) {
+        PendingWrite write = enqueue(reservation);
+        try {
+            return write.future.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (queue.remove(write)) {
+                throw new RuntimeException("Reservation was not written within " + writeTimeoutMs + " ms", e);
+            }
+            try {
+                return write.future.join();
+            } catch (CompletionException failure) {
+                throw asRuntimeException(failure.getCause());
+            }
+        } catch (ExecutionException e) {
+            throw asRuntimeException(e.getCause());
+        }
+    }
+
+    private static RuntimeException asRuntimeException(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+    }
+
+    private PendingWrite enqueue(Reservation reservation) {
+        PendingWrite write = new PendingWrite(reservation);
+        if (stopped) {
+            write.future.completeExceptionally(new RuntimeException("Reservation batch writer is shut down"));
+        } else if (!running) {
+            writeBatch(List.of(write));
+        } else {
+            queue.add(write);
+            // stop() may have drained the queue between the check and the add
+            if (stopped && queue.remove(write)) {
+                write.future.completeExceptionally(new RuntimeException("Reservation batch writer is shut down"));
+            }
+        }
+        return write;
+    }
+
+    private void runLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected failure in reservation batch writer", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(writeTimeoutMs)));
+        try {
+            List<Reservation> saved = transactionTemplate.execute(status ->
+                    reservationRepository.saveAll(batch.stream().map(write -> write.reservation).toList()));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(saved.get(i));
+            }
+            recordBatch(batch.size());
+        } catch (RuntimeException batchFailure) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(batchFailure);
+                return;
+            }
+            // One bad row must not fail its neighbours: retry each write in its own transaction
+            log.warn("Group commit of {} reservations failed, retrying individually", batch.size(), batchFailure);
+            for (PendingWrite write : batch) {
+                // Identifiers assigned inside the rolled-back transaction are void
+                write.reservation.setId(null);
+                try {
+                    write.future.complete(transactionTemplate.execute(status ->
+                            reservationRepository.save(write.reservation)));
+                    recordBatch(1);
+                } catch (RuntimeException e) {
+                    write.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void recordBatch(int size) {
+        batchSizeSummary.record(size);
+    }
+
+    /**
+     * キュー上の書き込み要求
+     */
+    private static final class PendingWrite {
+        final Reservation reservation;
+        final CompletableFuture<Reservation> future = new CompletableFuture<>();
+
+        PendingWrite(Reservation reservation) {
+            this.reservation = reservation;
+        }
+    }
+}
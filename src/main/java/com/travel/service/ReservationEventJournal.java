@@ -0,0 +1,318 @@
+package com.travel.service;
+
+import com.travel.entity.Reservation;
+import com.travel.event.ReservationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 予約イベントジャーナル
+ *
+ * 予約の状態変更イベントを固定長（64バイト）のバイナリレコードとして、
+ * メモリマップしたセグメントファイルに追記します。セグメントが一杯になると
+ * 次のセグメントへ切り替え、ディスクへの同期（fsync）は一定間隔でまとめて行います。
+ *
+ * 各レコードはジャーナル全体で連番のオフセットを持ち、任意のオフセットから
+ * 読み戻して派生ビューを再構築できます。データベースへの書き込み負荷は増えません。
+ *
+ * レコードの構成（ビッグエンディアン）:
+ * <pre>
+ *  0 int   マジックナンバー
+ *  4 byte  バージョン
+ *  5 byte  イベント種別
+ *  6 byte  予約ステータス（-1: なし）
+ *  7 byte  支払いステータス（-1: なし）
+ *  8 long  オフセット
+ * 16 long  発生時刻（エポックミリ秒）
+ * 24 long  予約ID（0: なし）
+ * 32 long  ツアーID（0: なし）
+ * 40 long  ユーザーID（0: なし）
+ * 48 int   人数
+ * 52 long  総額（小数2桁の最小単位、Long.MIN_VALUE: なし）
+ * 60 int   0〜59バイト目のCRC32
+ * </pre>
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class ReservationEventJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationEventJournal.class);
+
+    static final int RECORD_SIZE = 64;
+
+    private static final int MAGIC = 0x52455631;
+
+    private static final byte VERSION = 1;
+
+    private static final int CRC_POSITION = 60;
+
+    private static final int PRICE_SCALE = 2;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /** セグメントファイルの格納ディレクトリ */
+    @Value("${travel.journal.directory:journal}")
+    private String directory;
+
+    /** 1セグメントあたりのレコード数 */
+    @Value("${travel.journal.segment-records:1048576}")
+    private int segmentRecords;
+
+    private Path journalDirectory;
+
+    private FileChannel activeChannel;
+
+    private MappedByteBuffer activeSegment;
+
+    private long activeBaseOffset;
+
+    /** 次に書き込むレコードのオフセット */
+    private long nextOffset;
+
+    /** ディスクへの同期が完了しているオフセット（この値未満は永続化済み） */
+    private volatile long durableOffset;
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        journalDirectory = Paths.get(directory);
+        Files.createDirectories(journalDirectory);
+
+        List<Long> baseOffsets = listSegments();
+        long baseOffset = baseOffsets.isEmpty() ? 0 : baseOffsets.get(baseOffsets.size() - 1);
+        openSegment(baseOffset);
+
+        // Recover the write position: the first invalid record marks the end of the journal
+        int count = 0;
+        while (count < segmentRecords && isValid(activeSegment, count * RECORD_SIZE)) {
+            count++;
+        }
+        nextOffset = baseOffset + count;
+        durableOffset = nextOffset;
+        log.info("Opened reservation journal at {} (next offset {})", journalDirectory.toAbsolutePath(), nextOffset);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (activeChannel != null) {
+            activeSegment.force();
+            activeChannel.close();
+            activeChannel = null;
+        }
+    }
+
+    /**
+     * コミットされた予約イベントをジャーナルに追記します。
+     * トランザクション外で発行されたイベントは即時に追記されます。
+     *
+     * @param event 予約イベント
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationEvent(ReservationEvent event) {
+        append(event);
+    }
+
+    /**
+     * イベントを追記します。ディスクへの同期は次回の定期同期で行われます。
+     *
+     * @param event 予約イベント
+     * @return 割り当てられたオフセット
+     */
+    public synchronized long append(ReservationEvent event) {
+        try {
+            if (nextOffset - activeBaseOffset >= segmentRecords) {
+                rollSegment();
+            }
+            long offset = nextOffset;
+            int position = (int) (offset - activeBaseOffset) * RECORD_SIZE;
+            encode(activeSegment, position, offset, event);
+            nextOffset++;
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append reservation event", e);
+        }
+    }
+
+    /**
+     * 追記済みのレコードをまとめてディスクへ同期します。
+     */
+    @Scheduled(fixedDelayString = "${travel.journal.fsync-interval-ms:50}")
+    public void sync() {
+        MappedByteBuffer segment;
+        long target;
+        synchronized (this) {
+            if (durableOffset == nextOffset || activeSegment == null) {
+                return;
+            }
+            segment = activeSegment;
+            target = nextOffset;
+        }
+        // Forcing outside the lock keeps appends flowing while the disk catches up
+        segment.force();
+        synchronized (this) {
+            // A segment roll during the force may already have moved it further
+            durableOffset = Math.max(durableOffset, target);
+        }
+    }
+
+    /**
+     * 指定オフセット以降のイベントを順に読み戻します。
+     *
+     * @param fromOffset 読み込みを開始するオフセット
+     * @param consumer イベントの処理
+     * @return 次に読み込むべきオフセット（続きから再開する場合に使用）
+     */
+    public long replay(long fromOffset, Consumer<ReservationEvent> consumer) {
+        long limit = getNextOffset();
+        long offset = Math.max(fromOffset, 0);
+        try {
+            for (long baseOffset : listSegments()) {
+                if (offset >= limit) {
+                    break;
+                }
+                if (baseOffset + segmentRecords <= offset) {
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(segmentPath(baseOffset), StandardOpenOption.READ)) {
+                    MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    for (long index = offset - baseOffset; index < segmentRecords && offset < limit; index++) {
+                        int position = (int) index * RECORD_SIZE;
+                        if (!isValid(segment, position)) {
+                            return offset;
+                        }
+                        consumer.accept(decode(segment, position));
+                        offset++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay reservation journal", e);
+        }
+        return offset;
+    }
+
+    /**
+     * 次に書き込まれるレコードのオフセットを返します。
+     *
+     * @return オフセット
+     */
+    public synchronized long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * ディスクへの同期が完了したオフセットを返します。
+     *
+     * @return オフセット（この値未満のレコードは永続化済み）
+     */
+    public long getDurableOffset() {
+        return durableOffset;
+    }
+
+    private void rollSegment() throws IOException {
+        activeSegment.force();
+        activeChannel.close();
+        durableOffset = nextOffset;
+        openSegment(nextOffset);
+    }
+
+    private void openSegment(long baseOffset) throws IOException {
+        activeChannel = FileChannel.open(segmentPath(baseOffset),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeSegment = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+        activeBaseOffset = baseOffset;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long baseOffset) {
+        return journalDirectory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+    }
+
+    private static void encode(ByteBuffer buffer, int position, long offset, ReservationEvent event) {
+        buffer.putInt(position, MAGIC);
+        buffer.put(position + 4, VERSION);
+        buffer.put(position + 5, (byte) event.getType().ordinal());
+        buffer.put(position + 6, event.getStatus() != null ? (byte) event.getStatus().ordinal() : -1);
+        buffer.put(position + 7, event.getPaymentStatus() != null ? (byte) event.getPaymentStatus().ordinal() : -1);
+        buffer.putLong(position + 8, offset);
+        buffer.putLong(position + 16, event.getTimestamp());
+        buffer.putLong(position + 24, idOrZero(event.getReservationId()));
+        buffer.putLong(position + 32, idOrZero(event.getTourId()));
+        buffer.putLong(position + 40, idOrZero(event.getUserId()));
+        buffer.putInt(position + 48, event.getNumberOfPeople() != null ? event.getNumberOfPeople() : 0);
+        buffer.putLong(position + 52, event.getTotalPrice() != null
+                ? event.getTotalPrice().setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+                : Long.MIN_VALUE);
+        buffer.putInt(position + CRC_POSITION, checksum(buffer, position));
+    }
+
+    private static ReservationEvent decode(ByteBuffer buffer, int position) {
+        byte status = buffer.get(position + 6);
+        byte paymentStatus = buffer.get(position + 7);
+        long totalPrice = buffer.getLong(position + 52);
+        return new ReservationEvent(
+                buffer.getLong(position + 8),
+                ReservationEvent.Type.values()[buffer.get(position + 5)],
+                buffer.getLong(position + 16),
+                zeroToNull(buffer.getLong(position + 24)),
+                zeroToNull(buffer.getLong(position + 32)),
+                zeroToNull(buffer.getLong(position + 40)),
+                status >= 0 ? Reservation.ReservationStatus.values()[status] : null,
+                paymentStatus >= 0 ? Reservation.PaymentStatus.values()[paymentStatus] : null,
+                buffer.getInt(position + 48),
+                totalPrice != Long.MIN_VALUE ? new BigDecimal(BigInteger.valueOf(totalPrice), PRICE_SCALE) : null);
+    }
+
+    private static boolean isValid(ByteBuffer buffer, int position) {
+        return position + RECORD_SIZE <= buffer.limit()
+                && buffer.getInt(position) == MAGIC
+                && buffer.getInt(position + CRC_POSITION) == checksum(buffer, position);
+    }
+
+    private static int checksum(ByteBuffer buffer, int position) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, CRC_POSITION));
+        return (int) crc.getValue();
+    }
+
+    private static long idOrZero(Long id) {
+        return id != null ? id : 0L;
+    }
+
+    private static Long zeroToNull(long id) {
+        return id != 0L ? id : null;
+    }
+}
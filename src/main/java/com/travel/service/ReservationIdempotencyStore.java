@@ -0,0 +1,273 @@
+package com.travel.service;
+
+import com.travel.entity.Reservation;
+import com.travel.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 予約作成の冪等キー管理クラス
+ *
+ * Idempotency-Keyごとに予約作成の結果を保持し、クライアントの再送時には
+ * データベースに触れずに最初の結果を返します。処理中の同一キーの要求は
+ * 先行する処理の完了を待って同じ結果を受け取ります。
+ * キーは利用者ごとに独立しており、同じキーを別の内容の要求に使うとエラーになります。
+ *
+ * ローカルの保持件数と保持期間には上限があり、古いキーから破棄されます。
+ * 複数ノード構成ではRedisを第2階層として使用できます（キー→要求の指紋と予約ID）。
+ * 作成前にRedis上でキーを確保（SETNX）するため、複数ノードが同じキーで二重に予約することはありません。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class ReservationIdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationIdempotencyStore.class);
+
+    private static final String REDIS_KEY_PREFIX = "travel:idempotency:reservation:";
+
+    /** 作成中を示す値（予約IDの代わりに置く） */
+    private static final String PENDING = "pending";
+
+    private static final long PENDING_POLL_MILLIS = 50;
+
+    /** 自分が置いた作成中の値の場合だけ削除する */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    /** ローカルに保持する最大キー数 */
+    @Value("${travel.reservation.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    /** キーの保持期間（秒） */
+    @Value("${travel.reservation.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    /** 作成中のキーをRedis上で確保しておく期間（秒、作成したノードが停止した場合の上限） */
+    @Value("${travel.reservation.idempotency.pending-ttl-seconds:30}")
+    private long pendingTtlSeconds;
+
+    /** Redisを第2階層として使用するか */
+    @Value("${travel.reservation.idempotency.redis-enabled:false}")
+    private boolean redisEnabled;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** 登録順のキー（TTLは一律のため、先頭ほど古い） */
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * キーに対応する予約を返します。未登録の場合はcreatorで作成して登録します。
+     *
+     * @param scope キーの持ち主（利用者ごとにキーを分ける）
+     * @param key 冪等キー
+     * @param fingerprint 要求内容の指紋（同じキーで内容の異なる要求を拒否する）
+     * @param creator 予約を作成する処理
+     * @return 作成済み（または今回作成した）予約
+     */
+    public Reservation computeIfAbsent(String scope, String key, String fingerprint, Supplier<Reservation> creator) {
+        String scopedKey = scope + ":" + key;
+        long now = System.nanoTime();
+        Entry cached = entries.get(scopedKey);
+        if (cached != null && !cached.isExpired(now, ttlNanos())) {
+            // Hot path for retries: no allocation, no database access
+            return await(cached, fingerprint);
+        }
+        Entry entry = new Entry(scopedKey, fingerprint, now);
+        while (true) {
+            Entry existing = entries.putIfAbsent(scopedKey, entry);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(now, ttlNanos())) {
+                return await(existing, fingerprint);
+            }
+            if (entries.replace(scopedKey, existing, entry)) {
+                break;
+            }
+        }
+        insertionOrder.add(entry);
+        evict(now);
+
+        try {
+            Reservation reservation = createOnce(scopedKey, fingerprint, creator);
+            entry.result.complete(reservation);
+            return reservation;
+        } catch (RuntimeException e) {
+            // Failed attempts are not remembered, so the client may retry with the same key
+            entries.remove(scopedKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 現在ローカルに保持しているキー数を返します。
+     *
+     * @return キー数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        long ttlNanos = ttlNanos();
+        Entry oldest;
+        while ((oldest = insertionOrder.peek()) != null
+                && (entries.size() > maxEntries || oldest.isExpired(now, ttlNanos))) {
+            // poll() may hand back a slightly newer entry under contention, which is harmless here
+            Entry polled = insertionOrder.poll();
+            if (polled != null) {
+                entries.remove(polled.key, polled);
+            }
+        }
+    }
+
+    private Reservation await(Entry entry, String fingerprint) {
+        checkFingerprint(entry.fingerprint, fingerprint);
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new RuntimeException("Idempotency key was already used for a different request");
+        }
+    }
+
+    /**
+     * Redis上でキーを確保してから予約を作成します。
+     * 他ノードが確保済みの場合は、その結果が書かれるまで待ちます。
+     */
+    private Reservation createOnce(String scopedKey, String fingerprint, Supplier<Reservation> creator) {
+        StringRedisTemplate redisTemplate = redisTemplate();
+        if (redisTemplate == null) {
+            return creator.get();
+        }
+        String redisKey = REDIS_KEY_PREFIX + scopedKey;
+        String pendingValue = fingerprint + ":" + PENDING;
+        Boolean claimed;
+        try {
+            claimed = redisTemplate.opsForValue().setIfAbsent(redisKey, pendingValue,
+                    Duration.ofSeconds(pendingTtlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("Idempotency claim in Redis failed for key {}, deduplicating on this node only", scopedKey, e);
+            return creator.get();
+        }
+        if (!Boolean.TRUE.equals(claimed)) {
+            return awaitRemote(redisTemplate, scopedKey, fingerprint, creator);
+        }
+
+        Reservation reservation;
+        try {
+            reservation = creator.get();
+        } catch (RuntimeException e) {
+            release(redisTemplate, redisKey, pendingValue);
+            throw e;
+        }
+        try {
+            redisTemplate.opsForValue().set(redisKey, fingerprint + ":" + reservation.getId(),
+                    Duration.ofSeconds(ttlSeconds));
+        } catch (RuntimeException e) {
+            log.warn("Idempotency store in Redis failed for key {}", scopedKey, e);
+        }
+        return reservation;
+    }
+
+    private Reservation awaitRemote(StringRedisTemplate redisTemplate, String scopedKey, String fingerprint,
+                                    Supplier<Reservation> creator) {
+        String redisKey = REDIS_KEY_PREFIX + scopedKey;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(pendingTtlSeconds);
+        while (true) {
+            String value = redisTemplate.opsForValue().get(redisKey);
+            if (value == null) {
+                // The other node failed and released the key, or its claim expired: create it here
+                return createOnce(scopedKey, fingerprint, creator);
+            }
+            int separator = value.lastIndexOf(':');
+            checkFingerprint(value.substring(0, separator), fingerprint);
+            String reservationId = value.substring(separator + 1);
+            if (!PENDING.equals(reservationId)) {
+                return reservationRepository.findById(Long.valueOf(reservationId))
+                        .orElseThrow(() -> new RuntimeException("Reservation for idempotency key no longer exists"));
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new RuntimeException("Request with the same idempotency key is still in progress");
+            }
+            try {
+                Thread.sleep(PENDING_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for idempotency key", e);
+            }
+        }
+    }
+
+    private void release(StringRedisTemplate redisTemplate, String redisKey, String pendingValue) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey), pendingValue);
+        } catch (RuntimeException e) {
+            log.warn("Idempotency release in Redis failed for key {}", redisKey, e);
+        }
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+    }
+
+    private long ttlNanos() {
+        return TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * 冪等キー1件分の結果
+     */
+    private static final class Entry {
+        final String key;
+        final String fingerprint;
+        final long createdNanos;
+        final CompletableFuture<Reservation> result = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long createdNanos) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.createdNanos = createdNanos;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - createdNanos > ttlNanos;
+        }
+    }
+}
@@ -1,17 +1,47 @@
 package com.travel.service;
 
+import com.travel.dto.BulkReservationResultDto;
+import com.travel.dto.KeysetPage;
+import com.travel.dto.ReservationBucketCountDto;
+import com.travel.dto.ReservationExportDto;
+import com.travel.dto.ReservationViewDto;
+import com.travel.dto.SeatHoldDto;
+import com.travel.dto.TourViewDto;
 import com.travel.entity.Reservation;
 import com.travel.entity.Tour;
 import com.travel.entity.User;
+import com.travel.event.ReservationEvent;
 import com.travel.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -23,27 +53,110 @@ public class ReservationService {
     @Autowired
     private TourService tourService;
     
+    @Autowired
+    private TourInventoryService tourInventoryService;
+    
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ReservationBatchWriter reservationBatchWriter;
+    
+    @Autowired
+    private SeatHoldService seatHoldService;
+    
+    @Autowired
+    private ReservationIdempotencyStore reservationIdempotencyStore;
+    
+    @Autowired
+    private WaitlistService waitlistService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+    
+    @Autowired
+    private AssociationBatchLoader associationBatchLoader;
+    
+    @Autowired
+    private ReservationTimeIndex reservationTimeIndex;
+    
+    @Autowired
+    private Validator validator;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${travel.reservation.bulk.max-items:500}")
+    private int maxBulkItems;
+    
     public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+        return withAssociations(reservationRepository.findAll());
+    }
+    
+    public KeysetPage<ReservationViewDto> getReservationsPage(String cursor, Integer size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        List<ReservationViewDto> rows = reservationRepository.findViewsAfter(keysetPaginator.afterId(cursor),
+                Limit.of(pageSize + 1));
+        return keysetPaginator.page(rows, pageSize, ReservationViewDto::getId);
+    }
+    
+    public Optional<ReservationViewDto> getReservationViewById(Long id) {
+        return reservationRepository.findViewById(id);
+    }
+    
+    public List<ReservationViewDto> getReservationViewsByUser(Long userId) {
+        return reservationRepository.findViewsByUserId(userId);
+    }
+    
+    public List<ReservationViewDto> getReservationViewsByTour(Long tourId) {
+        return reservationRepository.findViewsByTourId(tourId);
+    }
+    
+    public List<ReservationViewDto> getReservationViewsByTourStartDate(LocalDate startDate, LocalDate endDate) {
+        // The tour date index narrows the tours first; reservations are then fetched by tour id
+        List<Long> tourIds = tourService.getTourIdsStartingBetween(startDate, endDate);
+        return tourIds.isEmpty() ? List.of() : reservationRepository.findViewsByTourIdIn(tourIds);
+    }
+    
+    @Transactional(readOnly = true)
+    public void exportReservations(Reservation.ReservationStatus status, Reservation.PaymentStatus paymentStatus,
+                                   String country, Consumer<ReservationExportDto> sink) {
+        // Rows are pulled from the cursor one at a time and detached once written,
+        // so the persistence context does not grow with the result size
+        try (Stream<Reservation> reservations = reservationRepository.streamForExport(status, paymentStatus, country)) {
+            reservations.forEach(reservation -> {
+                User user = reservation.getUser();
+                Tour tour = reservation.getTour();
+                sink.accept(new ReservationExportDto(reservation.getId(), user.getId(), user.getUsername(),
+                        tour.getId(), tour.getName(), tour.getDestination().getCountry(),
+                        reservation.getNumberOfPeople(), reservation.getTotalPrice(), reservation.getStatus(),
+                        reservation.getPaymentStatus(), reservation.getCreatedAt()));
+                entityManager.detach(reservation);
+                entityManager.detach(user);
+            });
+        }
     }
     
     public Optional<Reservation> getReservationById(Long id) {
         return reservationRepository.findById(id);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Reservation createReservation(Reservation reservation) {
         // Validate tour availability
-        Tour tour = tourService.getTourById(reservation.getTour().getId())
+        // Status and price come from the tour cache; the seat count is checked by the inventory
+        TourViewDto tour = tourService.getTourViewById(reservation.getTour().getId())
                 .orElseThrow(() -> new RuntimeException("Tour not found"));
         
         if (tour.getStatus() != Tour.TourStatus.AVAILABLE) {
             throw new RuntimeException("Tour is not available for reservation");
         }
         
-        if (tour.getCurrentCapacity() < reservation.getNumberOfPeople()) {
+        // Reserve seats in the inventory (released again if the reservation is not persisted)
+        if (!tourInventoryService.reserve(tour.getId(), reservation.getNumberOfPeople())) {
             throw new RuntimeException("Not enough capacity for this reservation");
         }
         
@@ -51,10 +164,167 @@ public class ReservationService {
         BigDecimal totalPrice = tour.getPrice().multiply(BigDecimal.valueOf(reservation.getNumberOfPeople()));
         reservation.setTotalPrice(totalPrice);
         
-        // Update tour capacity
-        tourService.updateTourCapacity(tour.getId(), tour.getCurrentCapacity() - reservation.getNumberOfPeople());
+        return persistNewReservation(reservation);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Reservation createReservation(Reservation reservation, String idempotencyKey, String principal) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createReservation(reservation);
+        }
+        // A retried request returns the original reservation instead of booking twice;
+        // keys are per principal and may not be reused for a different request
+        return reservationIdempotencyStore.computeIfAbsent(principal, idempotencyKey, fingerprint(reservation),
+                () -> createReservation(reservation));
+    }
+    
+    @Transactional(readOnly = true)
+    public boolean isOwnedBy(Long reservationId, Long userId) {
+        return userId != null && reservationRepository.existsByIdAndUserId(reservationId, userId);
+    }
+    
+    public List<BulkReservationResultDto> createReservations(List<Reservation> reservations) {
+        if (reservations.size() > maxBulkItems) {
+            throw new RuntimeException("Too many reservations in one request (max " + maxBulkItems + ")");
+        }
+        
+        // Resolve every referenced tour from the tour cache, loading the misses with a single IN query
+        List<Long> tourIds = reservations.stream()
+                .filter(reservation -> reservation != null && reservation.getTour() != null)
+                .map(reservation -> reservation.getTour().getId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, TourViewDto> tours = tourService.resolveTours(tourIds).stream()
+                .collect(Collectors.toMap(TourViewDto::getId, Function.identity()));
+        Set<Long> userIds = userService.getExistingUserIds(reservations.stream()
+                .filter(reservation -> reservation != null && reservation.getUser() != null)
+                .map(reservation -> reservation.getUser().getId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        
+        // Validate and reserve seats item by item so that one failure does not reject the whole upload;
+        // the inventory coalesces the seat changes into one capacity update per tour
+        List<BulkReservationResultDto> results = new ArrayList<>(reservations.size());
+        List<Reservation> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            String invalid = validate(reservation);
+            TourViewDto tour = invalid == null ? tours.get(reservation.getTour().getId()) : null;
+            
+            if (invalid != null) {
+                results.add(BulkReservationResultDto.failure(i, invalid));
+            } else if (!userIds.contains(reservation.getUser().getId())) {
+                results.add(BulkReservationResultDto.failure(i, "User not found"));
+            } else if (tour == null) {
+                results.add(BulkReservationResultDto.failure(i, "Tour not found"));
+            } else if (tour.getStatus() != Tour.TourStatus.AVAILABLE) {
+                results.add(BulkReservationResultDto.failure(i, "Tour is not available for reservation"));
+            } else if (!tourInventoryService.reserve(tour.getId(), reservation.getNumberOfPeople())) {
+                results.add(BulkReservationResultDto.failure(i, "Not enough capacity for this reservation"));
+            } else {
+                reservation.setTour(tourService.getTourReference(tour.getId()));
+                reservation.setTotalPrice(tour.getPrice().multiply(BigDecimal.valueOf(reservation.getNumberOfPeople())));
+                accepted.add(reservation);
+                acceptedIndexes.add(i);
+                results.add(null);
+            }
+        }
         
-        return reservationRepository.save(reservation);
+        // Persist all accepted reservations as one batched insert in this transaction
+        List<Reservation> saved = reservationRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results.set(index, new BulkReservationResultDto(index, true, saved.get(i).getId(), null));
+            publish(ReservationEvent.Type.CREATED, saved.get(i));
+        }
+        return results;
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Reservation createReservationFromHold(String holdId, Reservation reservation) {
+        // Seats and unit price were secured when the hold was placed, so no re-validation is needed
+        SeatHoldDto hold = seatHoldService.consumeHold(holdId);
+        
+        // The held seats were taken outside this scope, so no rollback hook returns them yet;
+        // without transaction synchronization they are returned directly on failure
+        boolean restoredOnRollback = tourInventoryService.restoreOnRollback(hold.getTourId(), hold.getSeats());
+        try {
+            reservation.setTour(tourService.getTourReference(hold.getTourId()));
+            reservation.setNumberOfPeople(hold.getSeats());
+            reservation.setTotalPrice(hold.getUnitPrice().multiply(BigDecimal.valueOf(hold.getSeats())));
+            
+            return persistNewReservation(reservation);
+        } catch (RuntimeException e) {
+            if (!restoredOnRollback) {
+                tourInventoryService.restoreNow(hold.getTourId(), hold.getSeats());
+            }
+            throw e;
+        }
+    }
+    
+    private List<Reservation> withAssociations(List<Reservation> reservations) {
+        // The loader is request-scoped; outside a web request (batch jobs, schedulers) associations stay lazy
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return reservations;
+        }
+        return associationBatchLoader.loadAssociations(reservations);
+    }
+    
+    /**
+     * Bean Validationの制約を検査し、違反があればその内容を返します。
+     * 合計金額はサーバー側で計算するため検査しません。
+     */
+    private String validate(Reservation reservation) {
+        if (reservation == null) {
+            return "Reservation must not be null";
+        }
+        String violations = validator.validate(reservation).stream()
+                .filter(violation -> !"totalPrice".equals(violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (!violations.isEmpty()) {
+            return violations;
+        }
+        if (reservation.getUser().getId() == null) {
+            return "user.id must not be null";
+        }
+        return reservation.getTour().getId() == null ? "tour.id must not be null" : null;
+    }
+    
+    private static String fingerprint(Reservation reservation) {
+        String request = String.join("\u0000",
+                String.valueOf(reservation.getUser() != null ? reservation.getUser().getId() : null),
+                String.valueOf(reservation.getTour() != null ? reservation.getTour().getId() : null),
+                String.valueOf(reservation.getNumberOfPeople()),
+                String.valueOf(reservation.getSpecialRequests()),
+                String.valueOf(reservation.getContactPhone()),
+                String.valueOf(reservation.getContactEmail()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private Reservation persistNewReservation(Reservation reservation) {
+        // Inside a caller's transaction the insert must share it; otherwise group-commit it.
+        // A failed write propagates and rolls back the calling scope, which returns the seats
+        // through the rollback hook registered when they were taken.
+        Reservation savedReservation =
+                TransactionSynchronizationManager.isActualTransactionActive() || !reservationBatchWriter.isEnabled()
+                        ? reservationRepository.save(reservation)
+                        : reservationBatchWriter.write(reservation);
+        publish(ReservationEvent.Type.CREATED, savedReservation);
+        return savedReservation;
+    }
+    
+    private void publish(ReservationEvent.Type type, Reservation reservation) {
+        // Journaled after commit; events from a rolled-back transaction are dropped
+        eventPublisher.publishEvent(ReservationEvent.of(type, reservation));
     }
     
     public Reservation updateReservation(Long id, Reservation reservationDetails) {
@@ -63,12 +333,21 @@ public class ReservationService {
         
         // If number of people changed, update tour capacity
         if (!reservation.getNumberOfPeople().equals(reservationDetails.getNumberOfPeople())) {
-            Tour tour = reservation.getTour();
-            int capacityDifference = reservation.getNumberOfPeople() - reservationDetails.getNumberOfPeople();
-            tourService.updateTourCapacity(tour.getId(), tour.getCurrentCapacity() + capacityDifference);
+            Long tourId = reservation.getTour().getId();
+            int capacityDifference = reservationDetails.getNumberOfPeople() - reservation.getNumberOfPeople();
+            if (capacityDifference > 0) {
+                if (!tourInventoryService.reserve(tourId, capacityDifference)) {
+                    throw new RuntimeException("Not enough capacity for this reservation");
+                }
+            } else {
+                waitlistService.releaseSeats(tourId, -capacityDifference);
+            }
             
-            // Recalculate total price
-            BigDecimal totalPrice = tour.getPrice().multiply(BigDecimal.valueOf(reservationDetails.getNumberOfPeople()));
+            // Recalculate total price from the cached tour instead of initializing the lazy association
+            BigDecimal price = tourService.getTourViewById(tourId)
+                    .orElseThrow(() -> new RuntimeException("Tour not found"))
+                    .getPrice();
+            BigDecimal totalPrice = price.multiply(BigDecimal.valueOf(reservationDetails.getNumberOfPeople()));
             reservation.setTotalPrice(totalPrice);
         }
         
@@ -79,50 +358,70 @@ public class ReservationService {
         reservation.setContactPhone(reservationDetails.getContactPhone());
         reservation.setContactEmail(reservationDetails.getContactEmail());
         
-        return reservationRepository.save(reservation);
+        Reservation savedReservation = reservationRepository.save(reservation);
+        publish(ReservationEvent.Type.UPDATED, savedReservation);
+        return savedReservation;
     }
     
     public void deleteReservation(Long id) {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
         
-        // Restore tour capacity
-        Tour tour = reservation.getTour();
-        tourService.updateTourCapacity(tour.getId(), tour.getCurrentCapacity() + reservation.getNumberOfPeople());
+        // Hand the seats to the waitlist first, then restore the rest
+        // (cancelled reservations have already released their seats)
+        if (reservation.getStatus() != Reservation.ReservationStatus.CANCELLED) {
+            waitlistService.releaseSeats(reservation.getTour().getId(), reservation.getNumberOfPeople());
+        }
         
         reservationRepository.delete(reservation);
+        publish(ReservationEvent.Type.DELETED, reservation);
     }
     
     public List<Reservation> getReservationsByUser(Long userId) {
-        return reservationRepository.findByUserId(userId);
+        return withAssociations(reservationRepository.findByUserId(userId));
     }
     
     public List<Reservation> getReservationsByTour(Long tourId) {
-        return reservationRepository.findByTourId(tourId);
+        return withAssociations(reservationRepository.findByTourId(tourId));
     }
     
     public List<Reservation> getReservationsByStatus(Reservation.ReservationStatus status) {
-        return reservationRepository.findByStatus(status);
+        return withAssociations(reservationRepository.findByStatus(status));
     }
     
     public List<Reservation> getReservationsByPaymentStatus(Reservation.PaymentStatus paymentStatus) {
-        return reservationRepository.findByPaymentStatus(paymentStatus);
+        return withAssociations(reservationRepository.findByPaymentStatus(paymentStatus));
     }
     
     public List<Reservation> getReservationsByUserAndStatus(Long userId, Reservation.ReservationStatus status) {
-        return reservationRepository.findByUserIdAndStatus(userId, status);
+        return withAssociations(reservationRepository.findByUserIdAndStatus(userId, status));
     }
     
     public List<Reservation> getReservationsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return reservationRepository.findByCreatedAtAfter(startDate);
+        // Resolve the ids from the in-memory time index; ranges older than its window go to the database
+        List<Long> ids = reservationTimeIndex.findIds(startDate, endDate);
+        if (ids == null) {
+            return withAssociations(reservationRepository.findByCreatedAtBetween(startDate, endDate));
+        }
+        Map<Long, Reservation> reservations = reservationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+        return withAssociations(ids.stream()
+                .map(reservations::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+    
+    public List<ReservationBucketCountDto> getReservationCountsByBucket(LocalDateTime startDate, LocalDateTime endDate,
+                                                                      ReservationTimeIndex.Granularity granularity) {
+        return reservationTimeIndex.countByBucket(startDate, endDate, granularity);
     }
     
     public List<Reservation> getReservationsByDestinationCountry(String country) {
-        return reservationRepository.findByDestinationCountry(country);
+        return withAssociations(reservationRepository.findByDestinationCountry(country));
     }
     
     public List<Reservation> getReservationsByUsername(String username) {
-        return reservationRepository.findByUsername(username);
+        return withAssociations(reservationRepository.findByUsername(username));
     }
     
     public Long getConfirmedReservationsCountByTour(Long tourId) {
@@ -140,18 +439,23 @@ public class ReservationService {
         
         reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
         reservationRepository.save(reservation);
+        publish(ReservationEvent.Type.CONFIRMED, reservation);
     }
     
     public void cancelReservation(Long id) {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
         
-        // Restore tour capacity
-        Tour tour = reservation.getTour();
-        tourService.updateTourCapacity(tour.getId(), tour.getCurrentCapacity() + reservation.getNumberOfPeople());
+        if (reservation.getStatus() == Reservation.ReservationStatus.CANCELLED) {
+            return;
+        }
+        
+        // Hand the seats to the waitlist first, then restore the rest
+        waitlistService.releaseSeats(reservation.getTour().getId(), reservation.getNumberOfPeople());
         
         reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        publish(ReservationEvent.Type.CANCELLED, reservation);
     }
     
     public void updatePaymentStatus(Long id, Reservation.PaymentStatus paymentStatus) {
@@ -160,5 +464,6 @@ public class ReservationService {
         
         reservation.setPaymentStatus(paymentStatus);
         reservationRepository.save(reservation);
+        publish(ReservationEvent.Type.PAYMENT_STATUS_CHANGED, reservation);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,257 @@
+package com.travel.service;
+
+import com.travel.dto.ReservationBucketCountDto;
+import com.travel.entity.Reservation;
+import com.travel.event.ReservationEvent;
+import com.travel.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 予約の作成日時インデックス
+ *
+ * 予約IDを作成日時の1時間単位のバケットに振り分けてメモリ上に保持し、
+ * 期間指定の予約ID検索と、時間・日単位の作成件数／キャンセル件数の集計を
+ * データベースに問い合わせずに返します。
+ * キャンセル件数は、その時間帯に作成された予約のうち現在キャンセル済みの件数です
+ * （キャンセルされた時刻ではなく、作成された時刻の時間帯に数えます）。
+ *
+ * 起動時に保持期間分を読み込み、以降は予約イベント（作成・キャンセル・削除など）で更新します。
+ * 保持期間より古い範囲の検索には応答しないため、呼び出し元はデータベースへ問い合わせます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class ReservationTimeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationTimeIndex.class);
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    /**
+     * 集計の粒度
+     */
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    /** インデックスの保持期間（日） */
+    @Value("${travel.reservation.time-index.retention-days:90}")
+    private int retentionDays;
+
+    /** 時間番号（ローカル日時のエポックからの時間数）ごとのバケット */
+    private final NavigableMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    /** 予約IDからバケットの時間番号への対応 */
+    private final Map<Long, Long> hourByReservation = new ConcurrentHashMap<>();
+
+    /** インデックスが網羅している範囲の開始（ローカル日時のミリ秒）。読み込み完了までは網羅範囲なし */
+    private volatile long coveredFromMillis = Long.MAX_VALUE;
+
+    /**
+     * 起動時に保持期間分の予約を読み込みます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        LocalDateTime since = LocalDateTime.now().minusDays(retentionDays).truncatedTo(ChronoUnit.HOURS);
+        List<ReservationRepository.CreationView> views = reservationRepository.findCreationViewsSince(since);
+        for (ReservationRepository.CreationView view : views) {
+            add(view.getId(), localMillis(view.getCreatedAt()),
+                    view.getStatus() == Reservation.ReservationStatus.CANCELLED);
+        }
+        coveredFromMillis = localMillis(since);
+        log.info("Indexed {} reservations created since {}", views.size(), since);
+    }
+
+    /**
+     * コミットされた予約イベントをインデックスに反映します。
+     *
+     * @param event 予約イベント
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationEvent(ReservationEvent event) {
+        Long reservationId = event.getReservationId();
+        if (reservationId == null) {
+            return;
+        }
+        boolean cancelled = event.getStatus() == Reservation.ReservationStatus.CANCELLED;
+        switch (event.getType()) {
+            case CREATED -> add(reservationId, localMillis(event.getCreatedAt() != null
+                    ? event.getCreatedAt()
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestamp()), ZoneId.systemDefault())),
+                    cancelled);
+            case DELETED -> remove(reservationId);
+            default -> {
+                if (event.getStatus() != null) {
+                    markCancelled(reservationId, cancelled);
+                }
+            }
+        }
+    }
+
+    /**
+     * 期間内に作成された予約のIDを作成日時順に返します。
+     *
+     * @param startDate 開始日時（この日時を含む）
+     * @param endDate 終了日時（この日時を含む）
+     * @return 予約IDの一覧。期間がインデックスの保持範囲外の場合はnull
+     */
+    public List<Long> findIds(LocalDateTime startDate, LocalDateTime endDate) {
+        long from = localMillis(startDate);
+        long to = localMillis(endDate);
+        if (from < coveredFromMillis) {
+            return null;
+        }
+
+        List<long[]> matches = new ArrayList<>();
+        for (Bucket bucket : buckets.subMap(hourOf(from), true, hourOf(to), true).values()) {
+            for (Map.Entry<Long, Long> entry : bucket.createdAtById.entrySet()) {
+                long createdAt = entry.getValue();
+                // Only the two edge buckets can hold rows outside the range
+                if (createdAt >= from && createdAt <= to) {
+                    matches.add(new long[] {createdAt, entry.getKey()});
+                }
+            }
+        }
+        matches.sort(Comparator.<long[]>comparingLong(match -> match[0]).thenComparingLong(match -> match[1]));
+        return matches.stream().map(match -> match[1]).toList();
+    }
+
+    /**
+     * 期間内の作成件数とキャンセル件数をバケットごとに返します。
+     *
+     * 期間の開始・終了は集計の粒度の境界に切り捨てられます。件数のないバケットは含まれません。
+     * キャンセル件数は、バケット内に作成された予約のうち現在キャンセル済みのものを数えます。
+     *
+     * @param startDate 開始日時
+     * @param endDate 終了日時
+     * @param granularity 集計の粒度
+     * @return バケットごとの件数（時刻順）
+     */
+    public List<ReservationBucketCountDto> countByBucket(LocalDateTime startDate, LocalDateTime endDate,
+                                                         Granularity granularity) {
+        ChronoUnit unit = granularity == Granularity.DAY ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        LocalDateTime from = startDate.truncatedTo(unit);
+        if (localMillis(from) < coveredFromMillis) {
+            throw new RuntimeException("Date range is outside the indexed window");
+        }
+
+        Map<LocalDateTime, long[]> counts = new TreeMap<>();
+        for (Map.Entry<Long, Bucket> entry : buckets.subMap(hourOf(localMillis(from)), true,
+                hourOf(localMillis(endDate)), true).entrySet()) {
+            Bucket bucket = entry.getValue();
+            int created = bucket.createdAtById.size();
+            if (created == 0) {
+                continue;
+            }
+            LocalDateTime bucketStart = LocalDateTime.ofEpochSecond(entry.getKey() * 3600, 0, ZoneOffset.UTC)
+                    .truncatedTo(unit);
+            long[] count = counts.computeIfAbsent(bucketStart, key -> new long[2]);
+            count[0] += created;
+            count[1] += bucket.cancelledIds.size();
+        }
+
+        List<ReservationBucketCountDto> result = new ArrayList<>(counts.size());
+        counts.forEach((bucketStart, count) -> result.add(new ReservationBucketCountDto(bucketStart, count[0], count[1])));
+        return result;
+    }
+
+    /**
+     * 保持期間を過ぎたバケットを破棄します。
+     */
+    @Scheduled(fixedDelay = HOUR_MILLIS, initialDelay = HOUR_MILLIS)
+    public void evictExpiredBuckets() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays).truncatedTo(ChronoUnit.HOURS);
+        long cutoffMillis = localMillis(cutoff);
+        if (coveredFromMillis == Long.MAX_VALUE || cutoffMillis <= coveredFromMillis) {
+            return;
+        }
+        // Narrow the covered window first so that no lookup sees a half-evicted range
+        coveredFromMillis = cutoffMillis;
+        NavigableMap<Long, Bucket> expired = buckets.headMap(hourOf(cutoffMillis), false);
+        for (Bucket bucket : expired.values()) {
+            bucket.createdAtById.keySet().forEach(hourByReservation::remove);
+        }
+        expired.clear();
+    }
+
+    private void add(Long reservationId, long createdAtMillis, boolean cancelled) {
+        long hour = hourOf(createdAtMillis);
+        Bucket bucket = buckets.computeIfAbsent(hour, key -> new Bucket());
+        bucket.createdAtById.put(reservationId, createdAtMillis);
+        if (cancelled) {
+            bucket.cancelledIds.add(reservationId);
+        }
+        hourByReservation.put(reservationId, hour);
+    }
+
+    private void remove(Long reservationId) {
+        Long hour = hourByReservation.remove(reservationId);
+        Bucket bucket = hour != null ? buckets.get(hour) : null;
+        if (bucket != null) {
+            bucket.createdAtById.remove(reservationId);
+            bucket.cancelledIds.remove(reservationId);
+        }
+    }
+
+    private void markCancelled(Long reservationId, boolean cancelled) {
+        Long hour = hourByReservation.get(reservationId);
+        Bucket bucket = hour != null ? buckets.get(hour) : null;
+        if (bucket == null) {
+            return;
+        }
+        if (cancelled) {
+            bucket.cancelledIds.add(reservationId);
+        } else {
+            bucket.cancelledIds.remove(reservationId);
+        }
+    }
+
+    /**
+     * ローカル日時をタイムゾーン変換せずにミリ秒へ写します（バケットの境界をローカル時刻に揃えるため）。
+     */
+    private static long localMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long hourOf(long localMillis) {
+        return Math.floorDiv(localMillis, HOUR_MILLIS);
+    }
+
+    /**
+     * 1時間分の予約
+     */
+    private static final class Bucket {
+        /** 予約IDから作成日時（ローカル日時のミリ秒）への対応 */
+        final Map<Long, Long> createdAtById = new ConcurrentHashMap<>();
+        final Set<Long> cancelledIds = ConcurrentHashMap.newKeySet();
+    }
+}
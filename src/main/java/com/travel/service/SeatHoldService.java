@@ -0,0 +1,186 @@
+package com.travel.service;
+
+import com.travel.dto.SeatHoldDto;
+import com.travel.dto.TourViewDto;
+import com.travel.entity.Tour;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 座席の仮押さえ（ホールド）管理サービス
+ *
+ * 決済手続き中の顧客のために、ツアーの座席を一定時間だけ在庫から確保します。
+ * 期限はハッシュ化タイミングホイールで管理し、期限切れのホールドは
+ * 自動的に在庫へ戻されるため、放棄されたカートが在庫を占有し続けることはありません。
+ * 戻される座席は、予約のキャンセルと同じくキャンセル待ちへ優先して割り当てられます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private TourInventoryService tourInventoryService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    /** ホールドの有効期間（秒） */
+    @Value("${travel.reservation.hold.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    /** タイミングホイールの1ティックの長さ（ミリ秒） */
+    @Value("${travel.reservation.hold.tick-ms:100}")
+    private long tickMillis;
+
+    /** タイミングホイールのバケット数 */
+    @Value("${travel.reservation.hold.wheel-size:1024}")
+    private int wheelSize;
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    private HashedTimingWheel<Hold> timingWheel;
+
+    @PostConstruct
+    public void start() {
+        timingWheel = new HashedTimingWheel<>(tickMillis, TimeUnit.MILLISECONDS, wheelSize, this::expire,
+                "SeatHoldTimer");
+    }
+
+    /**
+     * 停止時に残っているホールドの座席を在庫へ戻します。
+     * 戻さずに在庫を書き戻すと、再起動後に仮押さえ分の座席が失われるためです。
+     */
+    @PreDestroy
+    public void stop() {
+        timingWheel.stop();
+        holds.values().forEach(this::expire);
+    }
+
+    /**
+     * ツアーの座席を仮押さえします。
+     *
+     * 単価はホールド時点の価格で確定し、予約への変換時には再取得しません。
+     *
+     * @param tourId ツアーID
+     * @param seats 座席数
+     * @return 作成されたホールド
+     */
+    public SeatHoldDto placeHold(Long tourId, int seats) {
+        TourViewDto tour = tourService.getTourViewById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found"));
+
+        if (tour.getStatus() != Tour.TourStatus.AVAILABLE) {
+            throw new RuntimeException("Tour is not available for reservation");
+        }
+        if (!tourInventoryService.reserve(tourId, seats)) {
+            throw new RuntimeException("Not enough capacity for this reservation");
+        }
+
+        Hold hold = new Hold(new SeatHoldDto(UUID.randomUUID().toString(), tourId, seats, tour.getPrice(),
+                LocalDateTime.now().plusSeconds(holdTtlSeconds)));
+        hold.timeout = timingWheel.schedule(hold, holdTtlSeconds, TimeUnit.SECONDS);
+        holds.put(hold.dto.getHoldId(), hold);
+        return hold.dto;
+    }
+
+    /**
+     * ホールドを取得します。
+     *
+     * @param holdId ホールドID
+     * @return 有効なホールド、存在しないか期限切れの場合はnull
+     */
+    public SeatHoldDto getHold(String holdId) {
+        Hold hold = holds.get(holdId);
+        return hold != null ? hold.dto : null;
+    }
+
+    /**
+     * ホールドを解除し、座席をキャンセル待ちまたは在庫へ戻します。
+     *
+     * @param holdId ホールドID
+     */
+    public void releaseHold(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        hold.timeout.cancel();
+        returnSeats(hold);
+    }
+
+    /**
+     * ホールドを予約用に消費します。
+     *
+     * 確保済みの座席は在庫へ戻さず、呼び出し元に引き渡されます。
+     * 呼び出し元は予約の保存に失敗した場合、座席を解放する責任を負います。
+     *
+     * @param holdId ホールドID
+     * @return 消費されたホールド
+     */
+    public SeatHoldDto consumeHold(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        hold.timeout.cancel();
+        return hold.dto;
+    }
+
+    /**
+     * 現在有効なホールド数を返します。
+     *
+     * @return ホールド数
+     */
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    private void expire(Hold hold) {
+        // remove(key, value) loses the race against a concurrent consume/release
+        if (holds.remove(hold.dto.getHoldId(), hold)) {
+            returnSeats(hold);
+        }
+    }
+
+    private void returnSeats(Hold hold) {
+        // Freed seats go to the waitlist first, like cancelled reservations
+        try {
+            waitlistService.releaseSeats(hold.dto.getTourId(), hold.dto.getSeats());
+        } catch (RuntimeException e) {
+            // The promotion rolled back without releasing anything, so the seats go straight back
+            log.warn("Failed to promote waitlist for tour {}, returning held seats to inventory",
+                    hold.dto.getTourId(), e);
+            tourInventoryService.restoreNow(hold.dto.getTourId(), hold.dto.getSeats());
+        }
+    }
+
+    /**
+     * 有効なホールドとそのタイマー
+     */
+    private static final class Hold {
+        final SeatHoldDto dto;
+        volatile HashedTimingWheel.Timeout<Hold> timeout;
+
+        Hold(SeatHoldDto dto) {
+            this.dto = dto;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.travel.service;
+
+import com.travel.dto.TourSearchCriteria;
+import com.travel.entity.Tour;
+import com.travel.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ツアーカタログの列指向スナップショット
+ *
+ * ファセット検索用に、ツアーの属性を行番号で引ける属性ごとのプリミティブ配列と、
+ * 列挙値・国・地域ごとのビットセットとしてメモリ上に保持します。
+ * 範囲条件は配列の走査、値の条件はビットセットの論理積で評価するため、
+ * 条件を任意に組み合わせてもデータベースへの問い合わせは発生しません。
+ *
+ * ファセット件数は、そのファセット自身の条件を除いた他の条件で数えます
+ * （選択中の種別以外の件数も表示できるようにするため）。
+ *
+ * ツアーの登録・更新・削除、在庫の反映による販売状況の変化、目的地の更新時に、
+ * コミット後に該当する行だけを更新します。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class TourCatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(TourCatalogSnapshot.class);
+
+    private static final int PRICE_SCALE = 2;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Columns, indexed by row
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+    private long[] startDays = new long[INITIAL_CAPACITY];
+    private int rowCount;
+
+    /** 有効な行 */
+    private final BitSet live = new BitSet();
+
+    private final BitSet[] typeBits = newBitSets(Tour.TourType.values().length);
+
+    private final BitSet[] statusBits = newBitSets(Tour.TourStatus.values().length);
+
+    private final Dictionary countries = new Dictionary();
+
+    private final Dictionary regions = new Dictionary();
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    /** 削除により空いた行（再利用する） */
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+
+    /**
+     * 起動時にカタログ全体を読み込みます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadSnapshot() {
+        List<TourRepository.FacetView> views = tourRepository.findAllFacetViews();
+        lock.writeLock().lock();
+        try {
+            views.forEach(this::upsert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded catalog snapshot for {} tours", views.size());
+    }
+
+    /**
+     * ツアー1件分の行を読み直します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param tourId ツアーID
+     */
+    public void refresh(Long tourId) {
+        tourRepository.findFacetViewById(tourId).ifPresentOrElse(
+                view -> TransactionCallbacks.afterCommit(() -> apply(view)),
+                () -> remove(tourId));
+    }
+
+    /**
+     * 複数ツアーの行をまとめて読み直します。呼び出し元のトランザクションのコミット後に反映されます。
+     * 存在しなくなったツアーの行は削除します。
+     *
+     * @param tourIds ツアーID
+     */
+    public void refreshAll(Collection<Long> tourIds) {
+        if (tourIds.isEmpty()) {
+            return;
+        }
+        List<TourRepository.FacetView> views = tourRepository.findFacetViewsByIdIn(tourIds);
+        Set<Long> found = new HashSet<>();
+        views.forEach(view -> found.add(view.getId()));
+        TransactionCallbacks.afterCommit(() -> views.forEach(this::apply));
+        tourIds.stream().filter(tourId -> !found.contains(tourId)).forEach(this::remove);
+    }
+
+    /**
+     * ツアー1件分の行を削除します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param tourId ツアーID
+     */
+    public void remove(Long tourId) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer row = rowsById.remove(tourId);
+                if (row != null) {
+                    clearRow(row);
+                    freeRows.push(row);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 条件に一致するツアーIDとファセット件数を返します。
+     *
+     * @param criteria 検索条件（未指定の項目は条件なし）
+     * @return 開始日順のツアーIDとファセット件数
+     */
+    Result search(TourSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            BitSet base = rangeMatches(criteria);
+            BitSet typeMask = enumMask(typeBits, criteria.getTypes());
+            BitSet statusMask = enumMask(statusBits, criteria.getStatuses());
+            BitSet countryMask = countries.mask(criteria.getCountry());
+            BitSet regionMask = regions.mask(criteria.getRegion());
+
+            BitSet matches = intersect(base, typeMask, statusMask, countryMask, regionMask);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("type", enumCounts(Tour.TourType.values(), typeBits,
+                    intersect(base, statusMask, countryMask, regionMask)));
+            facets.put("status", enumCounts(Tour.TourStatus.values(), statusBits,
+                    intersect(base, typeMask, countryMask, regionMask)));
+            facets.put("country", countries.counts(intersect(base, typeMask, statusMask, regionMask)));
+            facets.put("region", regions.counts(intersect(base, typeMask, statusMask, countryMask)));
+
+            List<Integer> rows = new ArrayList<>(matches.cardinality());
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                rows.add(row);
+            }
+            rows.sort((a, b) -> startDays[a] != startDays[b]
+                    ? Long.compare(startDays[a], startDays[b])
+                    : Long.compare(ids[a], ids[b]));
+            List<Long> tourIds = rows.stream().map(row -> ids[row]).toList();
+            return new Result(tourIds, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(TourRepository.FacetView view) {
+        lock.writeLock().lock();
+        try {
+            upsert(view);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void upsert(TourRepository.FacetView view) {
+        Integer row = rowsById.get(view.getId());
+        if (row != null) {
+            clearRow(row);
+        } else {
+            row = !freeRows.isEmpty() ? freeRows.pop() : nextRow();
+            rowsById.put(view.getId(), row);
+        }
+        ids[row] = view.getId();
+        prices[row] = toMinorUnits(view.getPrice());
+        durations[row] = view.getDuration() != null ? view.getDuration() : 0;
+        startDays[row] = view.getStartDate() != null ? view.getStartDate().toEpochDay() : Long.MIN_VALUE;
+        if (view.getType() != null) {
+            typeBits[view.getType().ordinal()].set(row);
+        }
+        if (view.getStatus() != null) {
+            statusBits[view.getStatus().ordinal()].set(row);
+        }
+        countries.set(view.getCountry(), row);
+        regions.set(view.getRegion(), row);
+        live.set(row);
+    }
+
+    private void clearRow(int row) {
+        live.clear(row);
+        for (BitSet bits : typeBits) {
+            bits.clear(row);
+        }
+        for (BitSet bits : statusBits) {
+            bits.clear(row);
+        }
+        countries.clear(row);
+        regions.clear(row);
+    }
+
+    private int nextRow() {
+        if (rowCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+        }
+        return rowCount++;
+    }
+
+    private BitSet rangeMatches(TourSearchCriteria criteria) {
+        BitSet result = (BitSet) live.clone();
+        long minPrice = criteria.getMinPrice() != null ? toMinorUnits(criteria.getMinPrice()) : Long.MIN_VALUE;
+        long maxPrice = criteria.getMaxPrice() != null ? toMinorUnits(criteria.getMaxPrice()) : Long.MAX_VALUE;
+        int minDuration = criteria.getMinDuration() != null ? criteria.getMinDuration() : Integer.MIN_VALUE;
+        int maxDuration = criteria.getMaxDuration() != null ? criteria.getMaxDuration() : Integer.MAX_VALUE;
+        long startFrom = criteria.getStartDateFrom() != null ? criteria.getStartDateFrom().toEpochDay() : Long.MIN_VALUE;
+        long startTo = criteria.getStartDateTo() != null ? criteria.getStartDateTo().toEpochDay() : Long.MAX_VALUE;
+
+        for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+            if (prices[row] < minPrice || prices[row] > maxPrice
+                    || durations[row] < minDuration || durations[row] > maxDuration
+                    || startDays[row] < startFrom || startDays[row] > startTo) {
+                result.clear(row);
+            }
+        }
+        return result;
+    }
+
+    private static <E extends Enum<E>> BitSet enumMask(BitSet[] bitsByOrdinal, List<E> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet mask = new BitSet();
+        for (E value : values) {
+            mask.or(bitsByOrdinal[value.ordinal()]);
+        }
+        return mask;
+    }
+
+    private static <E extends Enum<E>> Map<String, Integer> enumCounts(E[] values, BitSet[] bitsByOrdinal,
+                                                                      BitSet scope) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (E value : values) {
+            counts.put(value.name(), countAnd(scope, bitsByOrdinal[value.ordinal()]));
+        }
+        return counts;
+    }
+
+    /**
+     * 指定したマスクの論理積を返します。nullのマスクは条件なしとして扱います。
+     */
+    private static BitSet intersect(BitSet base, BitSet... masks) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private static int countAnd(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result.cardinality();
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount != null
+                ? amount.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+                : 0L;
+    }
+
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] bitSets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitSets[i] = new BitSet();
+        }
+        return bitSets;
+    }
+
+    /**
+     * 文字列属性（国・地域）の辞書とビットセット
+     *
+     * 値は大文字・小文字を区別せずに照合し、件数には最初に登録された表記を使います。
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<BitSet> bits = new ArrayList<>();
+
+        void set(String value, int row) {
+            if (value == null) {
+                return;
+            }
+            Integer code = codes.get(key(value));
+            if (code == null) {
+                code = labels.size();
+                codes.put(key(value), code);
+                labels.add(value);
+                bits.add(new BitSet());
+            }
+            bits.get(code).set(row);
+        }
+
+        void clear(int row) {
+            for (BitSet rows : bits) {
+                rows.clear(row);
+            }
+        }
+
+        BitSet mask(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            Integer code = codes.get(key(value));
+            return code != null ? bits.get(code) : new BitSet();
+        }
+
+        Map<String, Integer> counts(BitSet scope) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int code = 0; code < labels.size(); code++) {
+                int count = countAnd(scope, bits.get(code));
+                if (count > 0) {
+                    counts.put(labels.get(code), count);
+                }
+            }
+            return counts;
+        }
+
+        private static String key(String value) {
+            return value.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 検索結果
+     */
+    static final class Result {
+        final List<Long> tourIds;
+        final Map<String, Map<String, Integer>> facets;
+
+        Result(List<Long> tourIds, Map<String, Map<String, Integer>> facets) {
+            this.tourIds = tourIds;
+            this.facets = facets;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.travel.service;
+
+import com.travel.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ツアー日程の区間インデックス
+ *
+ * ツアーの開催期間 [開始日, 終了日] を目的地ごとの区間木としてメモリ上に保持し、
+ * 日付の範囲に対する「期間が重なる」「期間内に収まる」「期間内に開始する」の検索を
+ * データベースに問い合わせずに返します。目的地を指定しない検索用に全ツアー分の木も持ちます。
+ *
+ * 区間木は開始日順に並べた配列上の暗黙の平衡二分木で、各ノードに部分木内の
+ * 最大終了日を持たせています。重なり検索は最大終了日が範囲の開始より前の部分木を丸ごと飛ばします。
+ *
+ * 木は不変で、ツアーの登録・更新・削除時にコミット後、該当する目的地の木だけを作り直します。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class TourDateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TourDateIndex.class);
+
+    /**
+     * 日付範囲との照合方法
+     */
+    public enum Match {
+        /** ツアー期間が範囲と1日以上重なる */
+        OVERLAPS,
+        /** ツアー期間が範囲内に収まる */
+        CONTAINED,
+        /** ツアーの開始日が範囲内にある */
+        STARTS_WITHIN
+    }
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    /** 目的地IDごとの区間木 */
+    private final Map<Long, IntervalTree> treesByDestination = new ConcurrentHashMap<>();
+
+    /** 全ツアー分の区間木 */
+    private volatile IntervalTree allTours = IntervalTree.EMPTY;
+
+    /** ツアーIDごとの登録内容（更新時に旧い目的地を探すため） */
+    private final Map<Long, Interval> intervals = new HashMap<>();
+
+    /**
+     * 起動時に全ツアーの日程を読み込みます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void loadIndex() {
+        Map<Long, List<Interval>> grouped = new HashMap<>();
+        for (TourRepository.DateView view : tourRepository.findAllDateViews()) {
+            Interval interval = Interval.of(view);
+            if (interval == null) {
+                continue;
+            }
+            intervals.put(interval.id, interval);
+            if (interval.destinationId != null) {
+                grouped.computeIfAbsent(interval.destinationId, key -> new ArrayList<>()).add(interval);
+            }
+        }
+        grouped.forEach((destinationId, list) -> treesByDestination.put(destinationId, IntervalTree.of(list)));
+        allTours = IntervalTree.of(new ArrayList<>(intervals.values()));
+        log.info("Indexed dates for {} tours in {} destinations", intervals.size(), grouped.size());
+    }
+
+    /**
+     * ツアー1件分の日程を読み直します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param tourId ツアーID
+     */
+    public void refresh(Long tourId) {
+        tourRepository.findDateViewById(tourId).ifPresentOrElse(
+                view -> {
+                    Interval interval = Interval.of(view);
+                    TransactionCallbacks.afterCommit(() -> apply(tourId, interval));
+                },
+                () -> remove(tourId));
+    }
+
+    /**
+     * ツアー1件分を削除します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param tourId ツアーID
+     */
+    public void remove(Long tourId) {
+        TransactionCallbacks.afterCommit(() -> apply(tourId, null));
+    }
+
+    /**
+     * 日付範囲に一致するツアーのIDを開始日順に返します。
+     *
+     * @param destinationId 目的地ID（nullの場合は全目的地）
+     * @param from 範囲の開始日（この日を含む、nullの場合は下限なし）
+     * @param to 範囲の終了日（この日を含む、nullの場合は上限なし）
+     * @param match 照合方法
+     * @return ツアーIDの一覧
+     */
+    public List<Long> find(Long destinationId, LocalDate from, LocalDate to, Match match) {
+        IntervalTree tree = destinationId != null
+                ? treesByDestination.getOrDefault(destinationId, IntervalTree.EMPTY)
+                : allTours;
+        long low = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long high = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        if (low > high) {
+            return List.of();
+        }
+        return switch (match) {
+            case OVERLAPS -> tree.overlapping(low, high);
+            case CONTAINED -> tree.startingWithin(low, high, high);
+            case STARTS_WITHIN -> tree.startingWithin(low, high, Long.MAX_VALUE);
+        };
+    }
+
+    private synchronized void apply(Long tourId, Interval next) {
+        Interval previous = next != null ? intervals.put(tourId, next) : intervals.remove(tourId);
+        if (previous != null) {
+            rebuild(previous.destinationId);
+        }
+        if (next != null && (previous == null || !Objects.equals(next.destinationId, previous.destinationId))) {
+            rebuild(next.destinationId);
+        }
+        allTours = IntervalTree.of(new ArrayList<>(intervals.values()));
+    }
+
+    private void rebuild(Long destinationId) {
+        if (destinationId == null) {
+            return;
+        }
+        List<Interval> members = intervals.values().stream()
+                .filter(interval -> destinationId.equals(interval.destinationId))
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        if (members.isEmpty()) {
+            treesByDestination.remove(destinationId);
+        } else {
+            treesByDestination.put(destinationId, IntervalTree.of(members));
+        }
+    }
+
+    /**
+     * ツアー1件分の開催期間（エポック日）
+     */
+    private static final class Interval {
+        final long id;
+        final Long destinationId;
+        final long start;
+        final long end;
+
+        Interval(long id, Long destinationId, long start, long end) {
+            this.id = id;
+            this.destinationId = destinationId;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * 開始日のないツアーは日程検索の対象外のためnullを返します。終了日がない場合は開始日のみの期間とします。
+         */
+        static Interval of(TourRepository.DateView view) {
+            if (view.getStartDate() == null) {
+                return null;
+            }
+            long start = view.getStartDate().toEpochDay();
+            long end = view.getEndDate() != null ? Math.max(view.getEndDate().toEpochDay(), start) : start;
+            return new Interval(view.getId(), view.getDestinationId(), start, end);
+        }
+    }
+
+    /**
+     * 開始日順の配列上に構成した不変の区間木
+     *
+     * 区間 [lo, hi) の根は中央の要素で、maxEnds[根] はその部分木内の最大終了日です。
+     */
+    private static final class IntervalTree {
+        static final IntervalTree EMPTY = new IntervalTree(new long[0], new long[0], new long[0]);
+
+        final long[] starts;
+        final long[] ends;
+        final long[] ids;
+        final long[] maxEnds;
+
+        IntervalTree(long[] starts, long[] ends, long[] ids) {
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+            this.maxEnds = new long[ids.length];
+            buildMaxEnds(0, ids.length);
+        }
+
+        static IntervalTree of(List<Interval> intervals) {
+            intervals.sort((a, b) -> a.start != b.start ? Long.compare(a.start, b.start) : Long.compare(a.id, b.id));
+            long[] starts = new long[intervals.size()];
+            long[] ends = new long[intervals.size()];
+            long[] ids = new long[intervals.size()];
+            for (int i = 0; i < intervals.size(); i++) {
+                Interval interval = intervals.get(i);
+                starts[i] = interval.start;
+                ends[i] = interval.end;
+                ids[i] = interval.id;
+            }
+            return new IntervalTree(starts, ends, ids);
+        }
+
+        /**
+         * [low, high] と重なる区間のIDを開始日順に返します。
+         */
+        List<Long> overlapping(long low, long high) {
+            List<Long> result = new ArrayList<>();
+            collectOverlapping(0, ids.length, low, high, result);
+            return result;
+        }
+
+        /**
+         * 開始日が [low, high] にあり、終了日が maxEnd 以下の区間のIDを開始日順に返します。
+         */
+        List<Long> startingWithin(long low, long high, long maxEnd) {
+            int from = lowerBound(low);
+            int to = high == Long.MAX_VALUE ? ids.length : lowerBound(high + 1);
+            List<Long> result = new ArrayList<>(Math.max(to - from, 0));
+            for (int i = from; i < to; i++) {
+                if (ends[i] <= maxEnd) {
+                    result.add(ids[i]);
+                }
+            }
+            return result;
+        }
+
+        private long buildMaxEnds(int lo, int hi) {
+            if (lo >= hi) {
+                return Long.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            long max = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+            maxEnds[mid] = max;
+            return max;
+        }
+
+        private void collectOverlapping(int lo, int hi, long low, long high, List<Long> result) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // Nothing in this subtree ends on or after the window start
+            if (maxEnds[mid] < low) {
+                return;
+            }
+            // In-order traversal keeps the start-date order
+            collectOverlapping(lo, mid, low, high, result);
+            if (starts[mid] > high) {
+                // Everything to the right starts even later
+                return;
+            }
+            if (ends[mid] >= low) {
+                result.add(ids[mid]);
+            }
+            collectOverlapping(mid + 1, hi, low, high, result);
+        }
+
+        private int lowerBound(long start) {
+            int index = Arrays.binarySearch(starts, start);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // Step back over equal start dates to the first one
+            while (index > 0 && starts[index - 1] == start) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package com.travel.service;
+
+import com.travel.cache.CacheNames;
+import com.travel.cache.EntityCacheTemplate;
+import com.travel.entity.Tour;
+import com.travel.repository.InventoryLeaseRepository;
+import com.travel.repository.TourRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ツアー在庫エンジン
+ *
+ * ツアーごとの残席数をメモリ上のアトミックカウンタで管理します。
+ * 予約時の座席確保はCASで行うため、同一ツアーへの同時予約でも
+ * データベース行のロックを待たずに過剰予約を防止できます。
+ *
+ * 残席の増減はツアーごとの差分として蓄積され、一定間隔で
+ * まとめてデータベースへ書き戻されます（ライトビハインド）。
+ *
+ * カウンタはノードのメモリ上にしかないため、座席を販売できるのは
+ * 在庫リース（inventory_leasesテーブル）を保持している1ノードだけです。
+ * リースを取得できないノードは起動に失敗し、リースを失ったノードは
+ * 座席の確保を拒否します。このため、データベースが差分の反映を拒否するのは
+ * 管理者によるツアーの変更（残席数の変更・中止・削除）と競合した場合に限られます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class TourInventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(TourInventoryService.class);
+
+    /** 在庫リースの名前 */
+    private static final String LEASE_NAME = "tour-inventory";
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private InventoryLeaseRepository inventoryLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TourCatalogSnapshot tourCatalogSnapshot;
+
+    @Autowired
+    private TourPriceIndex tourPriceIndex;
+
+    @Autowired
+    private EntityCacheTemplate entityCache;
+
+    @Value("${travel.inventory.lease.ttl-ms:30000}")
+    private long leaseTtlMs;
+
+    /** ツアーIDごとの在庫スロット */
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    /** 未反映の差分を持つツアーID */
+    private final Set<Long> dirtyTourIds = ConcurrentHashMap.newKeySet();
+
+    /** 反映中の差分がある間、データベースからの再同期を待たせるためのロック */
+    private final Object flushLock = new Object();
+
+    /** このノードのID（在庫リースの保持者） */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** 在庫リースが有効な期限（エポックミリ秒） */
+    private volatile long leaseValidUntil;
+
+    /**
+     * 起動時に在庫リースを取得し、toursテーブルから全ツアーの残席数を読み込みます。
+     *
+     * 他のノードがリースを保持している場合は、同じツアーを二重に販売しないよう起動を中止します。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInventory() {
+        if (!claimLease()) {
+            throw new RuntimeException("Tour inventory lease is held by another node; "
+                    + "the in-memory inventory supports a single node only");
+        }
+        resynchronizeAll();
+        log.info("Loaded inventory for {} tours", slots.size());
+    }
+
+    /**
+     * 在庫リースを更新します。
+     *
+     * リースを失った後に取り戻した場合は、その間に他のノードが販売した分を
+     * 取り込むため、全ツアーの残席数をデータベースから読み込み直します。
+     */
+    @Scheduled(fixedDelayString = "${travel.inventory.lease.renew-interval-ms:10000}")
+    public void renewLease() {
+        boolean wasHeld = isLeaseHeld();
+        try {
+            if (!claimLease()) {
+                if (wasHeld) {
+                    log.error("Tour inventory lease was taken over by another node, seat reservations are refused");
+                }
+                return;
+            }
+        } catch (RuntimeException e) {
+            // The lease stays valid until it expires; the next renewal retries
+            log.warn("Failed to renew the tour inventory lease", e);
+            return;
+        }
+        if (!wasHeld && !slots.isEmpty()) {
+            log.warn("Tour inventory lease reacquired, reloading inventory from the database");
+            resynchronizeAll();
+        }
+    }
+
+    /**
+     * 指定ツアーの座席を確保します。
+     *
+     * トランザクション内で呼び出された場合、ロールバック時に
+     * 確保した座席は自動的に解放されます。
+     *
+     * @param tourId ツアーID
+     * @param seats 確保する座席数
+     * @return 確保できた場合true、残席不足の場合false
+     */
+    public boolean reserve(Long tourId, int seats) {
+        if (seats <= 0) {
+            throw new RuntimeException("Number of seats must be positive");
+        }
+        if (!isLeaseHeld()) {
+            throw new RuntimeException("Tour inventory is not owned by this node");
+        }
+        Slot slot = slot(tourId);
+        if (!slot.tryReserve(seats)) {
+            return false;
+        }
+        dirtyTourIds.add(tourId);
+        TransactionCallbacks.afterRollback(() -> restore(tourId, seats));
+        return true;
+    }
+
+    /**
+     * 指定ツアーの座席を解放します。
+     *
+     * トランザクション内で呼び出された場合、コミット後に解放されるため、
+     * 未確定のキャンセル分の座席が他の予約に割り当てられることはありません。
+     *
+     * @param tourId ツアーID
+     * @param seats 解放する座席数
+     */
+    public void release(Long tourId, int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> restore(tourId, seats));
+    }
+
+    /**
+     * 呼び出し元のスコープの外で確保済みの座席（座席の仮押さえなど）を、
+     * 現在のトランザクションがロールバックされた場合に戻すよう登録します。
+     *
+     * @param tourId ツアーID
+     * @param seats 座席数
+     * @return 登録できた場合true。トランザクション同期が無効な場合はfalseを返すため、
+     *         呼び出し元が失敗時に {@link #restoreNow(Long, int)} を呼び出します
+     */
+    public boolean restoreOnRollback(Long tourId, int seats) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionCallbacks.afterRollback(() -> restore(tourId, seats));
+        return true;
+    }
+
+    /**
+     * 確保済みの座席をただちに戻します（保存に失敗した予約の補償に使います）。
+     *
+     * @param tourId ツアーID
+     * @param seats 座席数
+     */
+    public void restoreNow(Long tourId, int seats) {
+        if (seats > 0) {
+            restore(tourId, seats);
+        }
+    }
+
+    /**
+     * 指定ツアーの現在の残席数を返します。
+     *
+     * @param tourId ツアーID
+     * @return 残席数
+     */
+    public int getRemaining(Long tourId) {
+        return slot(tourId).remaining();
+    }
+
+    /**
+     * 管理者によるツアーの作成・変更を在庫に取り込みます。
+     *
+     * トランザクションのコミット後にデータベース上の残席数を読み込み、
+     * まだ反映していない予約・キャンセルの差分を差し引いた値を残席数とします。
+     * 管理者が設定した残席数は、反映済みの予約だけを前提とした値として扱うため、
+     * 未反映の予約の座席が失われることはありません。ロールバックされた場合は何もしません。
+     *
+     * @param tourId ツアーID
+     */
+    public void resynchronize(Long tourId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (flushLock) {
+                Optional<TourRepository.InventoryView> view = newTransaction(true)
+                        .execute(status -> tourRepository.findInventoryViewById(tourId));
+                if (view.isEmpty()) {
+                    discard(tourId);
+                    return;
+                }
+                rebase(tourId, view.get().getCurrentCapacity());
+            }
+        });
+    }
+
+    /**
+     * 削除されたツアーの在庫情報をコミット後に破棄します。
+     *
+     * @param tourId ツアーID
+     */
+    public void remove(Long tourId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (flushLock) {
+                discard(tourId);
+            }
+        });
+    }
+
+    /**
+     * 蓄積された残席の差分をデータベースへ一括反映します。
+     *
+     * ツアーごとに差分を合算し、1回のトランザクションで更新するため、
+     * 人気ツアーへの予約が集中しても更新文はツアーあたり1本になります。
+     * 減算は「残席が足りて販売中の場合のみ」の条件付き更新で行うため、
+     * データベース上の残席が負になることはありません。
+     * 反映に失敗した差分は次回の反映時に再試行されます。
+     *
+     * 管理者の変更と競合して条件付き更新が拒否された場合は、反映できる分だけを書き込み、
+     * 残りの予約分の座席は未反映の差分として持ち越します（残席数はデータベースの値から
+     * 持ち越した座席を差し引いた値に合わせます）。最大定員を超える解放分は破棄します。
+     *
+     * 反映によって販売状況（販売中・満席）が変わったツアーは、検索用のインデックスに反映し、
+     * キャッシュ上のツアーと問い合わせ結果のID一覧も破棄します。
+     */
+    @Scheduled(fixedDelayString = "${travel.inventory.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            flushDirty();
+        }
+    }
+
+    private void flushDirty() {
+        if (dirtyTourIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (Long tourId : dirtyTourIds) {
+            dirtyTourIds.remove(tourId);
+            Slot slot = slots.get(tourId);
+            if (slot == null) {
+                continue;
+            }
+            int delta = slot.drain();
+            if (delta != 0) {
+                deltas.put(tourId, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> carriedDeltas = new HashMap<>();
+        Map<Long, Integer> reconciledCapacities = new HashMap<>();
+        List<Long> statusChangedTourIds = new ArrayList<>();
+        try {
+            newTransaction(false).executeWithoutResult(status -> {
+                // The updates flip AVAILABLE/FULL in the database; compare before and after to find the flips
+                Map<Long, Tour.TourStatus> statusesBefore = statusesOf(deltas.keySet());
+                deltas.forEach((tourId, delta) -> {
+                    int updated = delta < 0
+                            ? tourRepository.decrementCapacityIfAvailable(tourId, -delta)
+                            : tourRepository.incrementCapacity(tourId, delta);
+                    if (updated == 0) {
+                        reconcile(tourId, delta, carriedDeltas, reconciledCapacities);
+                    }
+                });
+                statusesOf(deltas.keySet()).forEach((tourId, statusAfter) -> {
+                    if (statusAfter != statusesBefore.get(tourId)) {
+                        statusChangedTourIds.add(tourId);
+                    }
+                });
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush inventory for {} tours, will retry", deltas.size(), e);
+            deltas.forEach(this::carry);
+            return;
+        }
+
+        reconciledCapacities.forEach((tourId, capacity) -> {
+            if (capacity == null) {
+                log.warn("Tour {} was deleted before its inventory was flushed, dropping its inventory", tourId);
+                discard(tourId);
+                return;
+            }
+            int carried = carriedDeltas.getOrDefault(tourId, 0);
+            Slot slot = slots.get(tourId);
+            if (slot != null) {
+                // Carried seats wait for the next change on the tour (a release or an admin edit) to be retried
+                slot.reconcile(capacity, carried);
+            }
+            if (carried != 0) {
+                log.warn("Tour {} has {} seats of committed bookings beyond its capacity in the database, "
+                        + "carrying them until the capacity is raised", tourId, -carried);
+            }
+        });
+
+        if (!statusChangedTourIds.isEmpty()) {
+            log.debug("Inventory flush changed the status of tours {}", statusChangedTourIds);
+            tourCatalogSnapshot.refreshAll(statusChangedTourIds);
+            statusChangedTourIds.forEach(tourPriceIndex::refresh);
+            // Booking paths reject on the cached status, so a tour reopened here must not stay FULL in the cache
+            entityCache.evict(CacheNames.TOURS, statusChangedTourIds);
+            entityCache.clear(CacheNames.TOUR_QUERIES);
+        }
+    }
+
+    /**
+     * 条件付き更新が拒否されたツアーについて、現在の行に書き込める分だけを反映します。
+     *
+     * 予約分（負の差分）は確定済みの予約の座席なので破棄せず、書き込めなかった分を持ち越します。
+     * 解放分（正の差分）のうち最大定員を超える座席は存在しないため破棄します。
+     */
+    private void reconcile(Long tourId, int delta, Map<Long, Integer> carriedDeltas,
+                           Map<Long, Integer> reconciledCapacities) {
+        Optional<TourRepository.InventoryView> view = tourRepository.findInventoryViewById(tourId);
+        if (view.isEmpty()) {
+            reconciledCapacities.put(tourId, null);
+            return;
+        }
+        int capacity = view.get().getCurrentCapacity();
+        if (delta < 0) {
+            int applied = view.get().getStatus() == Tour.TourStatus.AVAILABLE ? Math.min(capacity, -delta) : 0;
+            if (applied > 0 && tourRepository.decrementCapacityIfAvailable(tourId, applied) > 0) {
+                capacity -= applied;
+            } else {
+                applied = 0;
+            }
+            carriedDeltas.put(tourId, delta + applied);
+        } else {
+            int applied = Math.min(view.get().getMaxCapacity() - capacity, delta);
+            if (applied > 0 && tourRepository.incrementCapacity(tourId, applied) > 0) {
+                capacity += applied;
+            }
+        }
+        reconciledCapacities.put(tourId, capacity);
+    }
+
+    private Map<Long, Tour.TourStatus> statusesOf(Collection<Long> tourIds) {
+        Map<Long, Tour.TourStatus> statuses = new HashMap<>();
+        for (TourRepository.PriceView view : tourRepository.findPriceViewsByIdIn(tourIds)) {
+            statuses.put(view.getId(), view.getStatus());
+        }
+        return statuses;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (isLeaseHeld()) {
+            try {
+                newTransaction(false).executeWithoutResult(status ->
+                        inventoryLeaseRepository.release(LEASE_NAME, nodeId, LocalDateTime.now()));
+                leaseValidUntil = 0;
+            } catch (RuntimeException e) {
+                log.warn("Failed to release the tour inventory lease, it expires on its own", e);
+            }
+        }
+    }
+
+    private boolean isLeaseHeld() {
+        return System.currentTimeMillis() < leaseValidUntil;
+    }
+
+    private boolean claimLease() {
+        // Measured before the claim so this node stops selling no later than other nodes may take over
+        long validUntil = System.currentTimeMillis() + leaseTtlMs;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(leaseTtlMs * 1_000_000L);
+        TransactionTemplate transaction = newTransaction(false);
+        boolean claimed = Boolean.TRUE.equals(transaction.execute(status ->
+                inventoryLeaseRepository.claim(LEASE_NAME, nodeId, now, expiresAt) > 0));
+        if (!claimed) {
+            try {
+                transaction.executeWithoutResult(status ->
+                        inventoryLeaseRepository.insert(LEASE_NAME, nodeId, expiresAt));
+            } catch (DataIntegrityViolationException e) {
+                // The lease row exists and another node holds it
+                return false;
+            }
+        }
+        leaseValidUntil = validUntil;
+        return true;
+    }
+
+    private void resynchronizeAll() {
+        synchronized (flushLock) {
+            List<TourRepository.CapacityView> views = newTransaction(true)
+                    .execute(status -> tourRepository.findAllCapacities());
+            for (TourRepository.CapacityView view : views) {
+                rebase(view.getId(), view.getCurrentCapacity());
+            }
+        }
+    }
+
+    /**
+     * 残席数をデータベースの値から未反映の差分を差し引いた値に合わせます。flushLockを保持して呼び出します。
+     */
+    private void rebase(Long tourId, int capacity) {
+        Slot slot = slots.computeIfAbsent(tourId, id -> new Slot(0));
+        if (slot.reconcile(capacity, 0) != 0) {
+            dirtyTourIds.add(tourId);
+        }
+    }
+
+    private void discard(Long tourId) {
+        slots.remove(tourId);
+        dirtyTourIds.remove(tourId);
+    }
+
+    private TransactionTemplate newTransaction(boolean readOnly) {
+        // Runs on its own even from an afterCommit callback, whose transaction has already completed
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private Slot slot(Long tourId) {
+        return slots.computeIfAbsent(tourId, id -> {
+            Tour tour = tourRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Tour not found"));
+            return new Slot(tour.getCurrentCapacity());
+        });
+    }
+
+    private void restore(Long tourId, int seats) {
+        slot(tourId).restore(seats);
+        dirtyTourIds.add(tourId);
+    }
+
+    private void carry(Long tourId, int delta) {
+        Slot slot = slots.get(tourId);
+        if (slot != null) {
+            slot.reconcile(null, delta);
+            dirtyTourIds.add(tourId);
+        }
+    }
+
+    /**
+     * ツアー1件分の在庫スロット
+     *
+     * 残席数とデータベース未反映の差分を1つのlongにまとめて保持し、
+     * 両者を常に同時に更新します（再同期中の予約で差分と残席数がずれないようにするため）。
+     */
+    private static final class Slot {
+        /** 上位32ビットが残席数、下位32ビットがデータベース未反映の差分 */
+        private final AtomicLong state;
+
+        Slot(int remaining) {
+            this.state = new AtomicLong(pack(remaining, 0));
+        }
+
+        int remaining() {
+            return remainingOf(state.get());
+        }
+
+        boolean tryReserve(int seats) {
+            long current;
+            do {
+                current = state.get();
+                if (remainingOf(current) < seats) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current,
+                    pack(remainingOf(current) - seats, pendingOf(current) - seats)));
+            return true;
+        }
+
+        void restore(int seats) {
+            state.updateAndGet(s -> pack(remainingOf(s) + seats, pendingOf(s) + seats));
+        }
+
+        /** 未反映の差分を取り出して0にします */
+        int drain() {
+            return pendingOf(state.getAndUpdate(s -> pack(remainingOf(s), 0)));
+        }
+
+        /**
+         * 反映できなかった差分を持ち越し、データベースの残席数が分かっている場合は
+         * 残席数を「データベースの残席数 + 未反映の差分」に合わせます。
+         *
+         * @return 持ち越し後の未反映の差分
+         */
+        int reconcile(Integer capacity, int carried) {
+            return pendingOf(state.updateAndGet(s -> {
+                int pending = pendingOf(s) + carried;
+                return pack(capacity != null ? capacity + pending : remainingOf(s), pending);
+            }));
+        }
+
+        private static long pack(int remaining, int pending) {
+            return ((long) remaining << 32) | (pending & 0xFFFFFFFFL);
+        }
+
+        private static int remainingOf(long state) {
+            return (int) (state >> 32);
+        }
+
+        private static int pendingOf(long state) {
+            return (int) state;
+        }
+    }
+}
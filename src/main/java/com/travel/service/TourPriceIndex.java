@@ -0,0 +1,259 @@
+package com.travel.service;
+
+import com.travel.entity.Tour;
+import com.travel.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * ツアーの価格インデックス
+ *
+ * ツアーの価格を最小通貨単位のlong値として、価格順（同額はID順）に並べた
+ * プリミティブ配列とツアーIDの配列で保持します。全ツアー分の配列に加えて
+ * ステータスごとの配列を持つため、価格帯や上限価格による検索は
+ * 二分探索で範囲を求め、その区間のIDを切り出すだけで済みます。
+ *
+ * 配列は更新のたびに作り直した不変の配列を公開するため、検索はロックなしで実行できます。
+ * ツアーの登録・更新・削除・残席数変更・キャンセル時に、コミット後に該当する1件だけを更新します。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+public class TourPriceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TourPriceIndex.class);
+
+    private static final int PRICE_SCALE = 2;
+
+    private static final int ALL = Tour.TourStatus.values().length;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    /** ステータスの序数ごとの配列（末尾は全ツアー分） */
+    private volatile Slice[] slices = emptySlices();
+
+    /** ツアーIDごとの登録内容（更新時に旧い位置を探すため） */
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * 起動時に全ツアーの価格を読み込みます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void loadIndex() {
+        List<TourRepository.PriceView> views = tourRepository.findAllPriceViews();
+        Map<Integer, List<Entry>> grouped = new HashMap<>();
+        for (TourRepository.PriceView view : views) {
+            Entry entry = Entry.of(view);
+            if (entry == null) {
+                continue;
+            }
+            entries.put(view.getId(), entry);
+            grouped.computeIfAbsent(entry.status, key -> new ArrayList<>()).add(entry);
+            grouped.computeIfAbsent(ALL, key -> new ArrayList<>()).add(entry);
+        }
+        Slice[] loaded = emptySlices();
+        grouped.forEach((status, list) -> loaded[status] = Slice.of(list));
+        slices = loaded;
+        log.info("Indexed prices for {} tours", entries.size());
+    }
+
+    /**
+     * ツアー1件分の価格とステータスを読み直します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param tourId ツアーID
+     */
+    public void refresh(Long tourId) {
+        tourRepository.findPriceViewById(tourId).ifPresentOrElse(
+                view -> {
+                    Entry entry = Entry.of(view);
+                    TransactionCallbacks.afterCommit(() -> apply(tourId, entry));
+                },
+                () -> remove(tourId));
+    }
+
+    /**
+     * ツアー1件分を削除します。呼び出し元のトランザクションのコミット後に反映されます。
+     *
+     * @param tourId ツアーID
+     */
+    public void remove(Long tourId) {
+        TransactionCallbacks.afterCommit(() -> apply(tourId, null));
+    }
+
+    /**
+     * 価格帯に含まれるツアーのIDを価格順に返します。
+     *
+     * @param minPrice 下限価格（この価格を含む）
+     * @param maxPrice 上限価格（この価格を含む）
+     * @return ツアーIDの一覧
+     */
+    public List<Long> findIdsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return slices[ALL].range(toMinorUnits(minPrice, RoundingMode.CEILING),
+                toMinorUnits(maxPrice, RoundingMode.FLOOR), id -> true);
+    }
+
+    /**
+     * 指定ステータスで上限価格以下のツアーのIDを価格順に返します。
+     *
+     * @param status ステータス
+     * @param maxPrice 上限価格（この価格を含む）
+     * @param filter IDに対する追加の条件
+     * @return ツアーIDの一覧
+     */
+    public List<Long> findIdsByMaxPrice(Tour.TourStatus status, BigDecimal maxPrice, LongPredicate filter) {
+        return slices[status.ordinal()].range(Long.MIN_VALUE, toMinorUnits(maxPrice, RoundingMode.FLOOR), filter);
+    }
+
+    private synchronized void apply(Long tourId, Entry next) {
+        Slice[] updated = slices.clone();
+        Entry previous = next != null ? entries.put(tourId, next) : entries.remove(tourId);
+        if (previous != null) {
+            updated[previous.status] = updated[previous.status].without(previous);
+            updated[ALL] = updated[ALL].without(previous);
+        }
+        if (next != null) {
+            updated[next.status] = updated[next.status].with(next);
+            updated[ALL] = updated[ALL].with(next);
+        }
+        slices = updated;
+    }
+
+    private static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.setScale(PRICE_SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    private static Slice[] emptySlices() {
+        Slice[] empty = new Slice[ALL + 1];
+        Arrays.fill(empty, Slice.EMPTY);
+        return empty;
+    }
+
+    /**
+     * ツアー1件分の価格とステータス
+     */
+    private static final class Entry {
+        final long id;
+        final long price;
+        final int status;
+
+        Entry(long id, long price, int status) {
+            this.id = id;
+            this.price = price;
+            this.status = status;
+        }
+
+        /**
+         * 価格またはステータスのないツアーは価格検索の対象外のためnullを返します。
+         */
+        static Entry of(TourRepository.PriceView view) {
+            if (view.getPrice() == null || view.getStatus() == null) {
+                return null;
+            }
+            return new Entry(view.getId(), toMinorUnits(view.getPrice(), RoundingMode.HALF_UP),
+                    view.getStatus().ordinal());
+        }
+    }
+
+    /**
+     * 価格順に並べた価格とIDの不変の配列
+     */
+    private static final class Slice {
+        static final Slice EMPTY = new Slice(new long[0], new long[0]);
+
+        final long[] prices;
+        final long[] ids;
+
+        Slice(long[] prices, long[] ids) {
+            this.prices = prices;
+            this.ids = ids;
+        }
+
+        static Slice of(List<Entry> entries) {
+            entries.sort((a, b) -> a.price != b.price ? Long.compare(a.price, b.price) : Long.compare(a.id, b.id));
+            long[] prices = new long[entries.size()];
+            long[] ids = new long[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                prices[i] = entries.get(i).price;
+                ids[i] = entries.get(i).id;
+            }
+            return new Slice(prices, ids);
+        }
+
+        List<Long> range(long minPrice, long maxPrice, LongPredicate filter) {
+            if (minPrice > maxPrice) {
+                return List.of();
+            }
+            int from = lowerBound(minPrice, Long.MIN_VALUE);
+            int to = maxPrice == Long.MAX_VALUE ? ids.length : lowerBound(maxPrice + 1, Long.MIN_VALUE);
+            List<Long> result = new ArrayList<>(Math.max(to - from, 0));
+            for (int i = from; i < to; i++) {
+                if (filter.test(ids[i])) {
+                    result.add(ids[i]);
+                }
+            }
+            return result;
+        }
+
+        Slice with(Entry entry) {
+            int index = lowerBound(entry.price, entry.id);
+            return new Slice(insert(prices, index, entry.price), insert(ids, index, entry.id));
+        }
+
+        Slice without(Entry entry) {
+            int index = lowerBound(entry.price, entry.id);
+            if (index == ids.length || ids[index] != entry.id || prices[index] != entry.price) {
+                return this;
+            }
+            return new Slice(delete(prices, index), delete(ids, index));
+        }
+
+        /**
+         * (price, id) 以上となる最初の位置を返します。
+         */
+        private int lowerBound(long price, long id) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price || (prices[mid] == price && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static long[] insert(long[] values, int index, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, index);
+            result[index] = value;
+            System.arraycopy(values, index, result, index + 1, values.length - index);
+            return result;
+        }
+
+        private static long[] delete(long[] values, int index) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.travel.service;
 
+import com.travel.cache.CacheNames;
+import com.travel.cache.EntityCacheTemplate;
+import com.travel.dto.KeysetPage;
+import com.travel.dto.TourFacetSearchResultDto;
+import com.travel.dto.TourSearchCriteria;
+import com.travel.dto.TourViewDto;
 import com.travel.entity.Tour;
 import com.travel.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,23 +27,72 @@ import java.util.Optional;
 @Transactional
 public class TourService {
     
+    private static final Logger log = LoggerFactory.getLogger(TourService.class);
+    
     @Autowired
     private TourRepository tourRepository;
     
-    @Cacheable("tours")
-    public List<Tour> getAllTours() {
-        return tourRepository.findAll();
+    @Autowired
+    private TourInventoryService tourInventoryService;
+    
+    @Autowired
+    private TourCatalogSnapshot tourCatalogSnapshot;
+    
+    @Autowired
+    private TourPriceIndex tourPriceIndex;
+    
+    @Autowired
+    private TourDateIndex tourDateIndex;
+    
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+    
+    @Autowired
+    private EntityCacheTemplate entityCache;
+    
+    /** ツアー名・説明文の検索用インデックス */
+    private final NGramIndex searchIndex = new NGramIndex();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadSearchIndex() {
+        for (TourRepository.SearchTextView view : tourRepository.findAllSearchTexts()) {
+            searchIndex.put(view.getId(), view.getName(), view.getDescription());
+        }
+        log.info("Indexed {} tours for search", searchIndex.size());
+    }
+    
+    public List<TourViewDto> getAllTours() {
+        return resolveTours(entityCache.getIds(CacheNames.TOUR_QUERIES, "all", tourRepository::findAllIds));
     }
     
-    @Cacheable("tours")
-    public List<Tour> getAvailableTours() {
-        return tourRepository.findAvailableTours();
+    public KeysetPage<TourViewDto> getToursPage(String cursor, Integer size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        List<TourViewDto> rows = tourRepository.findViewsAfter(keysetPaginator.afterId(cursor), Limit.of(pageSize + 1));
+        return keysetPaginator.page(rows, pageSize, TourViewDto::getId);
+    }
+    
+    public List<TourViewDto> getAvailableTours() {
+        return resolveTours(entityCache.getIds(CacheNames.TOUR_QUERIES, "available", tourRepository::findAvailableIds));
     }
     
     public Optional<Tour> getTourById(Long id) {
         return tourRepository.findById(id);
     }
     
+    public Optional<TourViewDto> getTourViewById(Long id) {
+        return entityCache.get(CacheNames.TOURS, id, tourRepository::findViewById);
+    }
+    
+    public Tour getTourReference(Long id) {
+        return tourRepository.getReferenceById(id);
+    }
+    
+    public List<TourViewDto> resolveTours(List<Long> ids) {
+        // Cached tours by id; the misses are loaded with one primary-key IN query joined with the destination
+        return entityCache.getAll(CacheNames.TOURS, ids, tourRepository::findViewsByIdIn, TourViewDto::getId);
+    }
+    
     public Tour createTour(Tour tour) {
         if (tour.getStartDate().isBefore(LocalDate.now())) {
             throw new RuntimeException("Tour start date cannot be in the past");
@@ -45,10 +104,12 @@ public class TourService {
             throw new RuntimeException("Current capacity cannot exceed max capacity");
         }
         
-        return tourRepository.save(tour);
+        Tour savedTour = tourRepository.save(tour);
+        tourInventoryService.resynchronize(savedTour.getId());
+        indexTour(savedTour);
+        return savedTour;
     }
     
-    @CacheEvict(value = "tours", allEntries = true)
     public Tour updateTour(Long id, Tour tourDetails) {
         Tour tour = tourRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tour not found"));
@@ -66,14 +127,41 @@ public class TourService {
         tour.setStatus(tourDetails.getStatus());
         tour.setImageUrl(tourDetails.getImageUrl());
         
-        return tourRepository.save(tour);
+        Tour savedTour = tourRepository.save(tour);
+        tourInventoryService.resynchronize(savedTour.getId());
+        indexTour(savedTour);
+        return savedTour;
     }
     
-    @CacheEvict(value = "tours", allEntries = true)
     public void deleteTour(Long id) {
         Tour tour = tourRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tour not found"));
         tourRepository.delete(tour);
+        tourInventoryService.remove(id);
+        tourCatalogSnapshot.remove(id);
+        tourPriceIndex.remove(id);
+        tourDateIndex.remove(id);
+        evictTour(id);
+        TransactionCallbacks.afterCommit(() -> searchIndex.remove(id));
+    }
+    
+    private void indexTour(Tour tour) {
+        evictTour(tour.getId());
+        tourCatalogSnapshot.refresh(tour.getId());
+        tourPriceIndex.refresh(tour.getId());
+        tourDateIndex.refresh(tour.getId());
+        Long id = tour.getId();
+        String name = tour.getName();
+        String description = tour.getDescription();
+        TransactionCallbacks.afterCommit(() -> searchIndex.put(id, name, description));
+    }
+    
+    private void evictTour(Long id) {
+        // Only this tour's entry and the cached id lists that may contain it
+        TransactionCallbacks.afterCommit(() -> {
+            entityCache.evict(CacheNames.TOURS, List.of(id));
+            entityCache.clear(CacheNames.TOUR_QUERIES);
+        });
     }
     
     public List<Tour> getToursByDestination(Long destinationId) {
@@ -88,8 +176,8 @@ public class TourService {
         return tourRepository.findByType(type);
     }
     
-    public List<Tour> getToursByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return tourRepository.findByPriceBetween(minPrice, maxPrice);
+    public List<TourViewDto> getToursByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return resolveTours(tourPriceIndex.findIdsByPriceRange(minPrice, maxPrice));
     }
     
     public List<Tour> getToursByDurationRange(Integer minDuration, Integer maxDuration) {
@@ -100,25 +188,44 @@ public class TourService {
         return tourRepository.findAvailableToursByCountry(country);
     }
     
-    public List<Tour> searchTours(String name) {
-        return tourRepository.findByNameOrDescriptionContaining(name);
+    public List<TourViewDto> searchTours(String name) {
+        return resolveTours(searchIndex.search(name));
+    }
+    
+    public TourFacetSearchResultDto searchToursByFacets(TourSearchCriteria criteria) {
+        // Filtering and facet counting run on the in-memory snapshot; only the matches are loaded
+        TourCatalogSnapshot.Result result = tourCatalogSnapshot.search(criteria);
+        return new TourFacetSearchResultDto(resolveTours(result.tourIds), result.tourIds.size(), result.facets);
+    }
+    
+    public List<TourViewDto> getToursByDateRange(LocalDate startDate, LocalDate endDate) {
+        return resolveTours(tourDateIndex.find(null, startDate, endDate, TourDateIndex.Match.STARTS_WITHIN));
     }
     
-    public List<Tour> getToursByDateRange(LocalDate startDate, LocalDate endDate) {
-        return tourRepository.findByStartDateBetween(startDate, endDate);
+    public List<TourViewDto> getToursByDateWindow(Long destinationId, LocalDate from, LocalDate to,
+                                                  TourDateIndex.Match match) {
+        return resolveTours(tourDateIndex.find(destinationId, from, to, match));
     }
     
-    public List<Tour> getAvailableToursByMaxPrice(BigDecimal maxPrice) {
-        return tourRepository.findAvailableToursByMaxPrice(maxPrice);
+    public List<Long> getTourIdsStartingBetween(LocalDate startDate, LocalDate endDate) {
+        return tourDateIndex.find(null, startDate, endDate, TourDateIndex.Match.STARTS_WITHIN);
     }
     
-    public List<Tour> getUpcomingTours() {
-        return tourRepository.findByStartDateAfter(LocalDate.now());
+    public List<TourViewDto> getAvailableToursByMaxPrice(BigDecimal maxPrice) {
+        // The write-behind inventory flips AVAILABLE/FULL in the database only; check the live seat count instead
+        return resolveTours(tourPriceIndex.findIdsByMaxPrice(Tour.TourStatus.AVAILABLE, maxPrice,
+                id -> tourInventoryService.getRemaining(id) > 0));
+    }
+    
+    public List<TourViewDto> getUpcomingTours() {
+        return resolveTours(tourDateIndex.find(null, LocalDate.now().plusDays(1), null,
+                TourDateIndex.Match.STARTS_WITHIN));
     }
     
     public void updateTourCapacity(Long tourId, Integer newCapacity) {
-        Tour tour = tourRepository.findById(tourId)
-                .orElseThrow(() -> new RuntimeException("Tour not found"));
+        // Validated against the cached tour, persisted with one UPDATE and written through to the cache
+        TourViewDto tour = copyOf(getTourViewById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found")));
         
         if (newCapacity < 0) {
             throw new RuntimeException("Capacity cannot be negative");
@@ -135,14 +242,41 @@ public class TourService {
             tour.setStatus(Tour.TourStatus.AVAILABLE);
         }
         
-        tourRepository.save(tour);
+        if (tourRepository.updateCapacityAndStatus(tourId, newCapacity, tour.getStatus(), LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Tour not found");
+        }
+        tourInventoryService.resynchronize(tourId);
+        writeThrough(tour);
+        tourCatalogSnapshot.refresh(tourId);
+        tourPriceIndex.refresh(tourId);
     }
     
     public void cancelTour(Long tourId) {
-        Tour tour = tourRepository.findById(tourId)
-                .orElseThrow(() -> new RuntimeException("Tour not found"));
+        TourViewDto tour = copyOf(getTourViewById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found")));
         
         tour.setStatus(Tour.TourStatus.CANCELLED);
-        tourRepository.save(tour);
+        if (tourRepository.updateStatus(tourId, tour.getStatus(), LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Tour not found");
+        }
+        writeThrough(tour);
+        tourCatalogSnapshot.refresh(tourId);
+        tourPriceIndex.refresh(tourId);
+    }
+    
+    private void writeThrough(TourViewDto tour) {
+        // Replace this tour's entry instead of evicting it; id lists may change membership with the status
+        TransactionCallbacks.afterCommit(() -> {
+            entityCache.put(CacheNames.TOURS, tour.getId(), tour);
+            entityCache.clear(CacheNames.TOUR_QUERIES);
+        });
+    }
+    
+    private static TourViewDto copyOf(TourViewDto tour) {
+        // Cached instances are shared between requests and must not be modified
+        return new TourViewDto(tour.getId(), tour.getName(), tour.getDescription(), tour.getPrice(),
+                tour.getDuration(), tour.getMaxCapacity(), tour.getCurrentCapacity(), tour.getStartDate(),
+                tour.getEndDate(), tour.getType(), tour.getStatus(), tour.getImageUrl(), tour.getDestinationId(),
+                tour.getDestinationName(), tour.getDestinationCountry(), tour.getDestinationCity());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.travel.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * トランザクション完了時のコールバック登録ユーティリティ
+ *
+ * メモリ上の状態（在庫カウンタ、待ちリストなど）をデータベースの
+ * コミット／ロールバックと整合させるために使用します。
+ * トランザクション外で呼び出された場合、コミット時の処理は即時に実行されます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * コミット後に処理を実行します。トランザクション外では即時に実行します。
+     *
+     * @param action 実行する処理
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * ロールバック後に処理を実行します。トランザクション外では何もしません。
+     *
+     * @param action 実行する処理
+     */
+    static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
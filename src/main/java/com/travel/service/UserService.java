@@ -1,14 +1,19 @@
 package com.travel.service;
 
+import com.travel.dto.KeysetPage;
 import com.travel.entity.User;
 import com.travel.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -20,10 +25,20 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    public KeysetPage<User> getUsersPage(String cursor, Integer size) {
+        int pageSize = keysetPaginator.pageSize(size);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(keysetPaginator.afterId(cursor),
+                Limit.of(pageSize + 1));
+        return keysetPaginator.page(rows, pageSize, User::getId);
+    }
+
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -83,6 +98,11 @@ public class UserService {
         return userRepository.findByFullNameOrUsernameContaining(name);
     }
 
+    @Transactional(readOnly = true)
+    public Set<Long> getExistingUserIds(Collection<Long> ids) {
+        return ids.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(ids));
+    }
+
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
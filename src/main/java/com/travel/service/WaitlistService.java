@@ -0,0 +1,266 @@
+package com.travel.service;
+
+import com.travel.dto.TourViewDto;
+import com.travel.dto.WaitlistEntryDto;
+import com.travel.entity.Reservation;
+import com.travel.entity.Tour;
+import com.travel.entity.User;
+import com.travel.entity.WaitlistEntry;
+import com.travel.event.ReservationEvent;
+import com.travel.repository.ReservationRepository;
+import com.travel.repository.WaitlistEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * キャンセル待ち管理サービス
+ *
+ * ツアーごとのキャンセル待ちをFIFOのキューとしてメモリ上に保持し、
+ * waitlist_entriesテーブルにも永続化します。予約のキャンセルや削除、
+ * 座席の仮押さえの期限切れなどで座席が解放されると、同じトランザクション内で
+ * 先頭から順に予約へ繰り上げます。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+@Service
+@Transactional
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TourInventoryService tourInventoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /** ツアーIDごとの待機中エントリ（登録順） */
+    private final Map<Long, Deque<Waiter>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 起動時に待機中のエントリをテーブルから読み込みます。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadWaitlists() {
+        List<WaitlistEntryRepository.WaitingView> waiting = waitlistEntryRepository.findAllWaiting();
+        for (WaitlistEntryRepository.WaitingView view : waiting) {
+            queue(view.getTourId()).addLast(new Waiter(view.getId(), view.getUserId(), view.getNumberOfPeople()));
+        }
+        log.info("Loaded {} waitlist entries", waiting.size());
+    }
+
+    /**
+     * キャンセル待ちに登録します。
+     *
+     * 希望人数分の空席がある場合は、直接予約するよう登録を拒否します。
+     *
+     * @param tourId ツアーID
+     * @param userId ユーザーID
+     * @param numberOfPeople 希望人数
+     * @param contactEmail 連絡先メールアドレス
+     * @return 登録されたエントリ
+     */
+    public WaitlistEntryDto joinWaitlist(Long tourId, Long userId, Integer numberOfPeople, String contactEmail) {
+        if (numberOfPeople == null || numberOfPeople <= 0) {
+            throw new RuntimeException("Number of people must be positive");
+        }
+        TourViewDto tour = tourService.getTourViewById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found"));
+        if (tour.getStatus() == Tour.TourStatus.CANCELLED || tour.getStatus() == Tour.TourStatus.COMPLETED) {
+            throw new RuntimeException("Tour is not open for waitlist");
+        }
+        if (tourInventoryService.getRemaining(tourId) >= numberOfPeople) {
+            throw new RuntimeException("Seats are available, please make a reservation");
+        }
+        User user = userService.getUserById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        WaitlistEntry entry = new WaitlistEntry(user, tourService.getTourReference(tourId), numberOfPeople);
+        entry.setContactEmail(contactEmail);
+        WaitlistEntry savedEntry = waitlistEntryRepository.save(entry);
+
+        Waiter waiter = new Waiter(savedEntry.getId(), userId, numberOfPeople);
+        TransactionCallbacks.afterCommit(() -> queue(tourId).addLast(waiter));
+        return new WaitlistEntryDto(savedEntry.getId(), tourId, userId, numberOfPeople, savedEntry.getStatus(),
+                queue(tourId).size() + 1);
+    }
+
+    /**
+     * キャンセル待ちを取り消します。
+     *
+     * @param entryId エントリID
+     */
+    public void leaveWaitlist(Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        if (entry.getStatus() != WaitlistEntry.WaitlistStatus.WAITING) {
+            throw new RuntimeException("Waitlist entry is no longer waiting");
+        }
+        entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED);
+        waitlistEntryRepository.save(entry);
+
+        Long tourId = entry.getTour().getId();
+        TransactionCallbacks.afterCommit(() -> queue(tourId).removeIf(waiter -> waiter.entryId.equals(entryId)));
+    }
+
+    /**
+     * ツアーの待機中エントリを順番どおりに返します。
+     *
+     * @param tourId ツアーID
+     * @return 待機中エントリの一覧
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDto> getWaitlist(Long tourId) {
+        List<WaitlistEntryDto> entries = new ArrayList<>();
+        int position = 1;
+        for (Waiter waiter : queue(tourId)) {
+            entries.add(new WaitlistEntryDto(waiter.entryId, tourId, waiter.userId, waiter.numberOfPeople,
+                    WaitlistEntry.WaitlistStatus.WAITING, position++));
+        }
+        return entries;
+    }
+
+    /**
+     * 解放された座席をキャンセル待ちへ優先して割り当て、残りを在庫へ戻します。
+     *
+     * 予約のキャンセル・削除・人数の減少、座席の仮押さえの解除・期限切れなど、
+     * 座席を解放する処理はすべてここを通します。在庫へ戻す分はコミット後に戻されます。
+     *
+     * @param tourId ツアーID
+     * @param seats 解放された座席数
+     */
+    public void releaseSeats(Long tourId, int seats) {
+        int remainingSeats = promote(tourId, seats);
+        tourInventoryService.release(tourId, remainingSeats);
+    }
+
+    /**
+     * 解放された座席をキャンセル待ちの先頭から順に割り当て、予約を作成します。
+     *
+     * 先頭のエントリに必要な座席が解放分で足りない場合は在庫の残席から補い、
+     * それでも足りなければそこで繰り上げを止めます（順番の追い越しはしません）。
+     * 予約は呼び出し元のトランザクション内で作成され、ロールバック時には
+     * キューの状態も元に戻ります。
+     * ツアーが中止・終了している場合は繰り上げず、待機中のエントリをすべて取り消します。
+     *
+     * @param tourId ツアーID
+     * @param freedSeats 解放された座席数
+     * @return 繰り上げに使われなかった座席数（呼び出し元が在庫へ戻します）
+     */
+    private int promote(Long tourId, int freedSeats) {
+        Deque<Waiter> queue = queues.get(tourId);
+        if (queue == null || queue.isEmpty()) {
+            return freedSeats;
+        }
+        TourViewDto tour = tourService.getTourViewById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found"));
+        if (tour.getStatus() == Tour.TourStatus.CANCELLED || tour.getStatus() == Tour.TourStatus.COMPLETED) {
+            expireWaitlist(tourId, queue);
+            return freedSeats;
+        }
+
+        int seats = freedSeats;
+        List<Waiter> promoted = new ArrayList<>();
+        synchronized (queue) {
+            Waiter head;
+            while ((head = queue.peekFirst()) != null) {
+                if (head.numberOfPeople > seats) {
+                    // Top up from the inventory; reserved seats are compensated on rollback
+                    if (!tourInventoryService.reserve(tourId, head.numberOfPeople - seats)) {
+                        break;
+                    }
+                    seats = 0;
+                } else {
+                    seats -= head.numberOfPeople;
+                }
+                promoted.add(queue.pollFirst());
+            }
+        }
+        if (promoted.isEmpty()) {
+            return seats;
+        }
+        TransactionCallbacks.afterRollback(() -> {
+            synchronized (queue) {
+                for (int i = promoted.size() - 1; i >= 0; i--) {
+                    queue.addFirst(promoted.get(i));
+                }
+            }
+        });
+
+        BigDecimal price = tour.getPrice();
+        Map<Long, WaitlistEntry> entries = waitlistEntryRepository
+                .findAllById(promoted.stream().map(waiter -> waiter.entryId).toList()).stream()
+                .collect(Collectors.toMap(WaitlistEntry::getId, Function.identity()));
+
+        for (Waiter waiter : promoted) {
+            WaitlistEntry entry = entries.get(waiter.entryId);
+            Reservation reservation = new Reservation(entry.getUser(), entry.getTour(), entry.getNumberOfPeople(),
+                    price.multiply(BigDecimal.valueOf(entry.getNumberOfPeople())));
+            reservation.setContactEmail(entry.getContactEmail());
+            entry.setReservation(reservationRepository.save(reservation));
+            entry.setStatus(WaitlistEntry.WaitlistStatus.PROMOTED);
+            eventPublisher.publishEvent(ReservationEvent.of(ReservationEvent.Type.CREATED, entry.getReservation()));
+        }
+        return seats;
+    }
+
+    /**
+     * 中止・終了したツアーの待機中エントリを取り消し、コミット後にキューを破棄します。
+     */
+    private void expireWaitlist(Long tourId, Deque<Waiter> queue) {
+        List<WaitlistEntry> waiting = waitlistEntryRepository
+                .findByTourIdAndStatusOrderByIdAsc(tourId, WaitlistEntry.WaitlistStatus.WAITING);
+        waiting.forEach(entry -> entry.setStatus(WaitlistEntry.WaitlistStatus.CANCELLED));
+        waitlistEntryRepository.saveAll(waiting);
+        log.info("Tour {} is no longer open, cancelled {} waitlist entries", tourId, waiting.size());
+        TransactionCallbacks.afterCommit(() -> queues.remove(tourId, queue));
+    }
+
+    private Deque<Waiter> queue(Long tourId) {
+        return queues.computeIfAbsent(tourId, id -> new ConcurrentLinkedDeque<>());
+    }
+
+    /**
+     * キュー上の待機中エントリ
+     */
+    private static final class Waiter {
+        final Long entryId;
+        final Long userId;
+        final int numberOfPeople;
+
+        Waiter(Long entryId, Long userId, int numberOfPeople) {
+            this.entryId = entryId;
+            this.userId = userId;
+            this.numberOfPeople = numberOfPeople;
+        }
+    }
+}
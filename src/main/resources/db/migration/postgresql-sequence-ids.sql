@@ -0,0 +1,37 @@
+-- ============================================================================
+-- IDENTITY列からシーケンス採番(pooled, allocationSize=50)への移行スクリプト（PostgreSQL）
+--
+-- エンティティのIDはGenerationType.SEQUENCEで採番されるようになったため、
+-- 既存データベースでは以下を1回だけ実行してください。
+--   1. 各テーブル用のシーケンスを作成する（INCREMENT BYはallocationSizeと同じ50）
+--   2. 次に払い出される値を「既存の最大ID + 50」にする
+--      （pooledオプティマイザは取得値をブロックの上端として扱い、
+--        上端-49〜上端のIDを使うため、既存IDと衝突しない）
+--   3. IDENTITY/DEFAULTによる自動採番を外す
+--
+-- H2（ddl-auto: create-drop）ではHibernateがシーケンスを自動作成するため不要です。
+-- ============================================================================
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS destinations_seq INCREMENT BY 50;
+SELECT setval('destinations_seq', COALESCE((SELECT MAX(id) FROM destinations), 0) + 50, false);
+ALTER TABLE destinations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE destinations ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS tours_seq INCREMENT BY 50;
+SELECT setval('tours_seq', COALESCE((SELECT MAX(id) FROM tours), 0) + 50, false);
+ALTER TABLE tours ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tours ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS reservations_seq INCREMENT BY 50;
+SELECT setval('reservations_seq', COALESCE((SELECT MAX(id) FROM reservations), 0) + 50, false);
+ALTER TABLE reservations ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE reservations ALTER COLUMN id DROP DEFAULT;
+
+COMMIT;
@@ -0,0 +1,137 @@
+package com.travel.cache;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.travel.dto.TourViewDto;
+import com.travel.entity.Destination;
+import com.travel.entity.Tour;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * キャッシュ値のシリアライザーのベンチマーク
+ *
+ * 現行のJacksonシリアライザーとコンパクトなバイナリ形式について、
+ * 値のサイズと符号化・復号化の時間を比較します。
+ *
+ * 実行例: クラスパスにテストクラスを含めて main を実行します（引数で反復回数を指定可能）。
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+public final class CacheSerializerBenchmark {
+
+    private static final int CATALOG_SIZE = 1000;
+
+    private static final int ID_LIST_SIZE = 10_000;
+
+    private CacheSerializerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Random random = new Random(42);
+
+        // The Jackson serializer as configured in CacheConfig, plus java.time support for the date fields
+        RedisSerializer<Object> jackson = new GenericJackson2JsonRedisSerializer()
+                .configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+        RedisSerializer<Object> compactTour = new CompactRedisSerializer<>(CacheCodecs.TOUR_VIEW, 1024);
+        RedisSerializer<Object> compactDestination = new CompactRedisSerializer<>(CacheCodecs.DESTINATION, 1024);
+        RedisSerializer<Object> compactIds = new CompactRedisSerializer<>(CacheCodecs.ID_LIST, 1024);
+        RedisSerializer<Object> uncompressedIds = new CompactRedisSerializer<>(CacheCodecs.ID_LIST, 0);
+
+        List<TourViewDto> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            catalog.add(tour(i + 1, random));
+        }
+        List<Long> ids = new ArrayList<>(ID_LIST_SIZE);
+        long id = 1;
+        for (int i = 0; i < ID_LIST_SIZE; i++) {
+            id += 1 + random.nextInt(5);
+            ids.add(id);
+        }
+
+        System.out.printf("%-40s %10s %12s %12s%n", "case", "bytes", "encode(us)", "decode(us)");
+        run("tour / jackson", jackson, catalog.get(0), iterations);
+        run("tour / compact", compactTour, catalog.get(0), iterations);
+        run("destination / jackson", jackson, destination(), iterations);
+        run("destination / compact", compactDestination, destination(), iterations);
+        run("1000 tours as one list / jackson", jackson, catalog, iterations / 100);
+        runEach("1000 tours per id / compact", compactTour, catalog, iterations / 100);
+        run("10000 ids / jackson", jackson, ids, iterations / 10);
+        run("10000 ids / compact", uncompressedIds, ids, iterations / 10);
+        run("10000 ids / compact + deflate", compactIds, ids, iterations / 10);
+    }
+
+    private static void run(String name, RedisSerializer<Object> serializer, Object value, int iterations) {
+        byte[] bytes = serializer.serialize(value);
+        // Warm up before timing
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        long encodeStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = serializer.serialize(value);
+        }
+        long encodeNanos = System.nanoTime() - encodeStart;
+        long decodeStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(bytes);
+        }
+        long decodeNanos = System.nanoTime() - decodeStart;
+        print(name, bytes.length, encodeNanos / iterations, decodeNanos / iterations);
+    }
+
+    private static void runEach(String name, RedisSerializer<Object> serializer, List<?> values, int iterations) {
+        long totalBytes = 0;
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (Object value : values) {
+            // Warm-up is covered by the single-value runs
+            long start = System.nanoTime();
+            byte[] bytes = null;
+            for (int i = 0; i < iterations; i++) {
+                bytes = serializer.serialize(value);
+            }
+            encodeNanos += (System.nanoTime() - start) / iterations;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                serializer.deserialize(bytes);
+            }
+            decodeNanos += (System.nanoTime() - start) / iterations;
+            totalBytes += bytes.length;
+        }
+        print(name, totalBytes, encodeNanos, decodeNanos);
+    }
+
+    private static void print(String name, long bytes, long encodeNanos, long decodeNanos) {
+        System.out.printf("%-40s %10d %12.1f %12.1f%n", name, bytes, encodeNanos / 1000.0, decodeNanos / 1000.0);
+    }
+
+    private static TourViewDto tour(long id, Random random) {
+        LocalDate start = LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365));
+        return new TourViewDto(id, "Tour " + id + " - Kyoto temples and gardens",
+                "A guided walk through historic temples, tea houses and seasonal gardens.",
+                BigDecimal.valueOf(50_000 + random.nextInt(200_000), 2), 1 + random.nextInt(10), 30,
+                random.nextInt(30), start, start.plusDays(3), Tour.TourType.GROUP, Tour.TourStatus.AVAILABLE,
+                "https://example.com/images/tours/" + id + ".jpg", 10L + random.nextInt(50), "Kyoto", "Japan",
+                "Kyoto");
+    }
+
+    private static Destination destination() {
+        Destination destination = new Destination("Kyoto", "Historic capital with temples and gardens", "Japan");
+        destination.setId(12L);
+        destination.setCity("Kyoto");
+        destination.setRegion("Kansai");
+        destination.setImageUrl("https://example.com/images/destinations/12.jpg");
+        destination.setCreatedAt(LocalDateTime.of(2025, 4, 1, 9, 30));
+        destination.setUpdatedAt(LocalDateTime.of(2026, 2, 14, 18, 5));
+        return destination;
+    }
+}
@@ -0,0 +1,167 @@
+package com.travel.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travel.dto.TourViewDto;
+import com.travel.entity.Destination;
+import com.travel.entity.Tour;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * コンパクトなバイナリ形式のシリアライザーと符号化方式のテスト
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+class CompactRedisSerializerTest {
+
+    private final RedisSerializer<Object> tourSerializer = new CompactRedisSerializer<>(CacheCodecs.TOUR_VIEW, 1024);
+
+    @Test
+    void tourViewRoundTripKeepsEveryField() {
+        TourViewDto tour = new TourViewDto(42L, "京都の寺社めぐり", "Temples and gardens", new BigDecimal("1500.00"),
+                3, 20, 7, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 3), Tour.TourType.GROUP,
+                Tour.TourStatus.AVAILABLE, "https://example.com/kyoto.jpg", 5L, "Kyoto", "Japan", "Kyoto");
+
+        TourViewDto copy = (TourViewDto) tourSerializer.deserialize(tourSerializer.serialize(tour));
+
+        assertThat(copy).usingRecursiveComparison().isEqualTo(tour);
+    }
+
+    @Test
+    void nullFieldsRoundTripAsNull() {
+        TourViewDto tour = new TourViewDto(1L, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, null, null);
+
+        TourViewDto copy = (TourViewDto) tourSerializer.deserialize(tourSerializer.serialize(tour));
+
+        assertThat(copy).usingRecursiveComparison().isEqualTo(tour);
+    }
+
+    @Test
+    void destinationRoundTripKeepsNullsAndTimestamps() {
+        RedisSerializer<Object> serializer = new CompactRedisSerializer<>(CacheCodecs.DESTINATION, 1024);
+        Destination destination = new Destination();
+        destination.setId(9L);
+        destination.setName("Hokkaido");
+        destination.setCountry("Japan");
+        destination.setType(null);
+        destination.setActive(true);
+        destination.setCreatedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_789));
+
+        Destination copy = (Destination) serializer.deserialize(serializer.serialize(destination));
+
+        assertThat(copy.getId()).isEqualTo(9L);
+        assertThat(copy.getName()).isEqualTo("Hokkaido");
+        assertThat(copy.getDescription()).isNull();
+        assertThat(copy.getCity()).isNull();
+        assertThat(copy.getType()).isNull();
+        assertThat(copy.isActive()).isTrue();
+        assertThat(copy.getCreatedAt()).isEqualTo(destination.getCreatedAt());
+        assertThat(copy.getUpdatedAt()).isNull();
+    }
+
+    @Test
+    void bigDecimalKeepsItsScale() {
+        for (String price : List.of("1500", "1500.00", "0.005", "-12.5", "123456789012345678901234567890.12")) {
+            TourViewDto tour = tourWithPrice(new BigDecimal(price));
+
+            TourViewDto copy = (TourViewDto) tourSerializer.deserialize(tourSerializer.serialize(tour));
+
+            // BigDecimal.equals compares the scale as well as the value
+            assertThat(copy.getPrice()).isEqualTo(new BigDecimal(price));
+        }
+    }
+
+    @Test
+    void compressedAndUncompressedValuesDecodeTheSame() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 5000; id += 3) {
+            ids.add(id);
+        }
+        RedisSerializer<Object> compressing = new CompactRedisSerializer<>(CacheCodecs.ID_LIST, 64);
+        RedisSerializer<Object> plain = new CompactRedisSerializer<>(CacheCodecs.ID_LIST, 0);
+
+        byte[] compressed = compressing.serialize(ids);
+        byte[] uncompressed = plain.serialize(ids);
+
+        assertThat(compressed[0]).isEqualTo((byte) 1);
+        assertThat(uncompressed[0]).isEqualTo((byte) 0);
+        assertThat(compressed.length).isLessThan(uncompressed.length);
+        assertThat(compressing.deserialize(compressed)).isEqualTo(ids);
+        assertThat(plain.deserialize(uncompressed)).isEqualTo(ids);
+        // The flag in the header decides, not the reader's threshold
+        assertThat(plain.deserialize(compressed)).isEqualTo(ids);
+    }
+
+    @Test
+    void idListKeepsDescendingAndNegativeIds() {
+        RedisSerializer<Object> serializer = new CompactRedisSerializer<>(CacheCodecs.ID_LIST, 0);
+        List<Long> ids = List.of(100L, 3L, -7L, Long.MAX_VALUE, 0L);
+
+        assertThat(serializer.deserialize(serializer.serialize(ids))).isEqualTo(ids);
+        assertThat(serializer.deserialize(serializer.serialize(List.of()))).isEqualTo(List.of());
+    }
+
+    @Test
+    void truncatedCompressedValueIsRejected() {
+        RedisSerializer<Object> serializer = new CompactRedisSerializer<>(CacheCodecs.ID_LIST, 1);
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            ids.add(id * id);
+        }
+        byte[] bytes = serializer.serialize(ids);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void otherSchemaVersionIsRejected() {
+        byte[] bytes = tourSerializer.serialize(tourWithPrice(BigDecimal.TEN));
+        bytes[1] = (byte) (CacheCodecs.TOUR_VIEW.schemaVersion() + 1);
+
+        assertThatThrownBy(() -> tourSerializer.deserialize(bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasRootCauseMessage("Unsupported schema version 2 for TourViewDto");
+    }
+
+    @Test
+    void otherSchemaVersionInRedisIsACacheMiss() {
+        byte[] bytes = tourSerializer.serialize(tourWithPrice(BigDecimal.TEN));
+        bytes[1] = (byte) (CacheCodecs.TOUR_VIEW.schemaVersion() + 1);
+        Map<Object, byte[]> redis = new ConcurrentHashMap<>(Map.of(1L, bytes));
+        // Decodes on read like RedisCache does, so a stale entry fails while reading
+        Cache remote = new ConcurrentMapCache(CacheNames.TOURS) {
+            @Override
+            protected Object lookup(Object key) {
+                byte[] stored = redis.get(key);
+                return stored != null ? tourSerializer.deserialize(stored) : null;
+            }
+        };
+        TwoTierCache cache = new TwoTierCache(CacheNames.TOURS, Caffeine.newBuilder().build(), remote, null,
+                null, null);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private static TourViewDto tourWithPrice(BigDecimal price) {
+        return new TourViewDto(1L, "Tour", null, price, 1, 10, 10, null, null, Tour.TourType.GROUP,
+                Tour.TourStatus.AVAILABLE, null, null, null, null, null);
+    }
+}
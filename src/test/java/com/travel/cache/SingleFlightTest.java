@@ -0,0 +1,165 @@
+package com.travel.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * シングルフライトのテスト
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /** 呼び出しを実行中のスレッド */
+    private final List<Thread> callers = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentLoadsOfOneKeyRunTheLoaderOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(call(() -> singleFlight.load("tour:1", () -> {
+                calls.incrementAndGet();
+                release.await();
+                return "loaded";
+            })));
+        }
+        awaitCallersWaiting(CALLERS);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failureReachesWaitersAndIsNotRemembered() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> failing = () -> singleFlight.load("tour:1", () -> {
+            release.await();
+            throw new IllegalStateException("database down");
+        });
+        Future<String> first = call(failing);
+        Future<String> second = call(failing);
+        awaitCallersWaiting(2);
+        release.countDown();
+
+        for (Future<String> result : List.of(first, second)) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("database down");
+        }
+        assertThat(singleFlight.load("tour:1", () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void loadAllLoadsOnlyKeysWithoutARunningLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> running = call(() -> singleFlight.load("a", () -> {
+            release.await();
+            return "A";
+        }));
+        awaitCallersWaiting(1);
+
+        List<Collection<String>> batches = new CopyOnWriteArrayList<>();
+        Future<Map<String, String>> all = call(() -> singleFlight.loadAll(List.of("a", "b", "c"), keys -> {
+            batches.add(List.copyOf(keys));
+            // "c" does not exist and is left out of the result
+            return Map.of("b", "B");
+        }));
+        awaitCallersWaiting(2);
+        release.countDown();
+
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(all.get(5, TimeUnit.SECONDS)).containsExactlyInAnyOrderEntriesOf(Map.of("a", "A", "b", "B"));
+        assertThat(batches).containsExactly(List.of("b", "c"));
+    }
+
+    @Test
+    void loadWaitsForAKeyOfARunningLoadAll() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Map<String, String>> all = call(() -> singleFlight.loadAll(List.of("a", "b"), keys -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return Map.of("a", "A");
+        }));
+        awaitCallersWaiting(1);
+        AtomicInteger calls = new AtomicInteger();
+        Future<String> missing = call(() -> singleFlight.load("b", () -> {
+            calls.incrementAndGet();
+            return "B";
+        }));
+        awaitCallersWaiting(2);
+        release.countDown();
+
+        assertThat(all.get(5, TimeUnit.SECONDS)).containsExactlyEntriesOf(Map.of("a", "A"));
+        // The batch found nothing for "b", and its waiter receives that instead of loading again
+        assertThat(missing.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    void loadAllFailureIsNotRemembered() throws Exception {
+        assertThatThrownBy(() -> singleFlight.loadAll(List.of("a", "b"), keys -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.<String>loadAll(List.of("a", "b"), keys -> Map.of("a", "A", "b", "B")))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("a", "A", "b", "B"));
+    }
+
+    private <V> Future<V> call(Callable<V> callable) {
+        return executor.submit(() -> {
+            callers.add(Thread.currentThread());
+            return callable.call();
+        });
+    }
+
+    /**
+     * 指定した数の呼び出しが、読み込みの完了待ちで停止するまで待機します。
+     */
+    private void awaitCallersWaiting(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (callers.size() >= count
+                    && callers.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Callers did not block within 5 seconds");
+    }
+}
@@ -0,0 +1,122 @@
+package com.travel.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ハッシュ化タイミングホイールのテスト
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    private HashedTimingWheel<String> wheel;
+
+    @AfterEach
+    void stop() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void itemExpiresNoEarlierThanItsDelay() throws InterruptedException {
+        Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+        CountDownLatch expired = new CountDownLatch(1);
+        wheel = newWheel(8, item -> {
+            expiredAt.put(item, System.nanoTime());
+            expired.countDown();
+        });
+
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("hold-1", 50, TimeUnit.MILLISECONDS);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredAt.get("hold-1") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void delayLongerThanOneRotationWaitsForItsRound() throws InterruptedException {
+        Map<String, Long> expiredAt = new ConcurrentHashMap<>();
+        CountDownLatch expired = new CountDownLatch(2);
+        // 4 buckets of 10 ms: 25 ms stays in the first rotation, 105 ms lands two rotations later
+        wheel = newWheel(4, item -> {
+            expiredAt.put(item, System.nanoTime());
+            expired.countDown();
+        });
+
+        long scheduledAt = System.nanoTime();
+        wheel.schedule("short", 25, TimeUnit.MILLISECONDS);
+        wheel.schedule("long", 105, TimeUnit.MILLISECONDS);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredAt.get("short") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(25));
+        assertThat(expiredAt.get("long") - scheduledAt).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(105));
+        assertThat(expiredAt.get("long")).isGreaterThan(expiredAt.get("short"));
+    }
+
+    @Test
+    void cancelledItemNeverExpires() throws InterruptedException {
+        List<String> expiredItems = new CopyOnWriteArrayList<>();
+        CountDownLatch expired = new CountDownLatch(1);
+        wheel = newWheel(8, item -> {
+            expiredItems.add(item);
+            if (item.equals("last")) {
+                expired.countDown();
+            }
+        });
+
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 30, TimeUnit.MILLISECONDS);
+        wheel.schedule("kept", 30, TimeUnit.MILLISECONDS);
+        cancelled.cancel();
+        wheel.schedule("last", 60, TimeUnit.MILLISECONDS);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredItems).containsExactly("kept", "last");
+    }
+
+    @Test
+    void failingHandlerDoesNotStopTheTicker() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        wheel = newWheel(8, item -> {
+            if (item.equals("bad")) {
+                throw new IllegalStateException("handler failed");
+            }
+            expired.countDown();
+        });
+
+        wheel.schedule("bad", 10, TimeUnit.MILLISECONDS);
+        wheel.schedule("good", 40, TimeUnit.MILLISECONDS);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void stoppedWheelExpiresNothing() throws InterruptedException {
+        List<String> expiredItems = new CopyOnWriteArrayList<>();
+        wheel = newWheel(8, expiredItems::add);
+
+        wheel.schedule("hold-1", 20, TimeUnit.MILLISECONDS);
+        wheel.stop();
+        Thread.sleep(100);
+
+        assertThat(expiredItems).isEmpty();
+    }
+
+    private static HashedTimingWheel<String> newWheel(int size, Consumer<String> expiryHandler) {
+        return new HashedTimingWheel<>(TICK_MILLIS, TimeUnit.MILLISECONDS, size, expiryHandler, "test-timing-wheel");
+    }
+}
@@ -0,0 +1,170 @@
+package com.travel.service;
+
+import com.travel.entity.Reservation;
+import com.travel.event.ReservationEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 予約イベントジャーナルのテスト
+ *
+ * @author Travel System
+ * @version 1.0
+ */
+class ReservationEventJournalTest {
+
+    private static final int SEGMENT_RECORDS = 4;
+
+    @TempDir
+    Path directory;
+
+    private final List<ReservationEventJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void close() throws IOException {
+        for (ReservationEventJournal journal : journals) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void replayReturnsAppendedEventsInOrder() throws IOException {
+        ReservationEventJournal journal = openJournal();
+        ReservationEvent created = event(ReservationEvent.Type.CREATED, 1L, Reservation.ReservationStatus.PENDING,
+                Reservation.PaymentStatus.PENDING, new BigDecimal("1234.50"));
+        ReservationEvent cancelled = event(ReservationEvent.Type.CANCELLED, 2L, null, null, null);
+
+        assertThat(journal.append(created)).isEqualTo(0);
+        assertThat(journal.append(cancelled)).isEqualTo(1);
+
+        List<ReservationEvent> replayed = new ArrayList<>();
+        assertThat(journal.replay(0, replayed::add)).isEqualTo(2);
+
+        assertThat(replayed).hasSize(2);
+        ReservationEvent first = replayed.get(0);
+        assertThat(first.getOffset()).isEqualTo(0);
+        assertThat(first.getType()).isEqualTo(ReservationEvent.Type.CREATED);
+        assertThat(first.getTimestamp()).isEqualTo(created.getTimestamp());
+        assertThat(first.getReservationId()).isEqualTo(1L);
+        assertThat(first.getTourId()).isEqualTo(10L);
+        assertThat(first.getUserId()).isEqualTo(100L);
+        assertThat(first.getStatus()).isEqualTo(Reservation.ReservationStatus.PENDING);
+        assertThat(first.getPaymentStatus()).isEqualTo(Reservation.PaymentStatus.PENDING);
+        assertThat(first.getNumberOfPeople()).isEqualTo(2);
+        assertThat(first.getTotalPrice()).isEqualByComparingTo("1234.50");
+
+        ReservationEvent second = replayed.get(1);
+        assertThat(second.getOffset()).isEqualTo(1);
+        assertThat(second.getType()).isEqualTo(ReservationEvent.Type.CANCELLED);
+        assertThat(second.getStatus()).isNull();
+        assertThat(second.getPaymentStatus()).isNull();
+        assertThat(second.getTotalPrice()).isNull();
+    }
+
+    @Test
+    void appendsRollIntoNewSegmentsAndReplaySpansThem() throws IOException {
+        ReservationEventJournal journal = openJournal();
+        for (long id = 1; id <= 10; id++) {
+            journal.append(event(ReservationEvent.Type.UPDATED, id, null, null, null));
+        }
+
+        assertThat(segmentFiles()).hasSize(3);
+        // Rolling forces the full segment, so everything before the active segment is durable
+        assertThat(journal.getDurableOffset()).isEqualTo(8);
+
+        List<Long> reservationIds = new ArrayList<>();
+        assertThat(journal.replay(6, e -> reservationIds.add(e.getReservationId()))).isEqualTo(10);
+        assertThat(reservationIds).containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void syncMakesAppendedRecordsDurable() throws IOException {
+        ReservationEventJournal journal = openJournal();
+        journal.append(event(ReservationEvent.Type.CREATED, 1L, null, null, null));
+        journal.append(event(ReservationEvent.Type.CONFIRMED, 1L, null, null, null));
+        assertThat(journal.getDurableOffset()).isEqualTo(0);
+
+        journal.sync();
+
+        assertThat(journal.getDurableOffset()).isEqualTo(2);
+    }
+
+    @Test
+    void reopenRecoversNextOffsetAcrossSegments() throws IOException {
+        ReservationEventJournal journal = openJournal();
+        for (long id = 1; id <= 6; id++) {
+            journal.append(event(ReservationEvent.Type.CREATED, id, null, null, null));
+        }
+        journal.close();
+
+        ReservationEventJournal reopened = openJournal();
+
+        assertThat(reopened.getNextOffset()).isEqualTo(6);
+        assertThat(reopened.getDurableOffset()).isEqualTo(6);
+        assertThat(reopened.append(event(ReservationEvent.Type.CREATED, 7L, null, null, null))).isEqualTo(6);
+        List<Long> offsets = new ArrayList<>();
+        reopened.replay(0, e -> offsets.add(e.getOffset()));
+        assertThat(offsets).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void tornLastRecordIsRejectedByItsChecksum() throws IOException {
+        ReservationEventJournal journal = openJournal();
+        for (long id = 1; id <= 3; id++) {
+            journal.append(event(ReservationEvent.Type.CREATED, id, null, null, null));
+        }
+        journal.close();
+
+        // Simulate a crash halfway through the last record: its reservation id is only partly written
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), 2L * ReservationEventJournal.RECORD_SIZE + 24);
+        }
+
+        ReservationEventJournal reopened = openJournal();
+
+        assertThat(reopened.getNextOffset()).isEqualTo(2);
+        List<Long> reservationIds = new ArrayList<>();
+        assertThat(reopened.replay(0, e -> reservationIds.add(e.getReservationId()))).isEqualTo(2);
+        assertThat(reservationIds).containsExactly(1L, 2L);
+        // The torn slot is reused by the next append
+        assertThat(reopened.append(event(ReservationEvent.Type.CREATED, 4L, null, null, null))).isEqualTo(2);
+    }
+
+    private ReservationEventJournal openJournal() throws IOException {
+        ReservationEventJournal journal = new ReservationEventJournal();
+        ReflectionTestUtils.setField(journal, "directory", directory.toString());
+        ReflectionTestUtils.setField(journal, "segmentRecords", SEGMENT_RECORDS);
+        journal.open();
+        journals.add(journal);
+        return journal;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static ReservationEvent event(ReservationEvent.Type type, Long reservationId,
+                                          Reservation.ReservationStatus status,
+                                          Reservation.PaymentStatus paymentStatus, BigDecimal totalPrice) {
+        return new ReservationEvent(-1, type, System.currentTimeMillis(), reservationId, 10L, 100L,
+                status, paymentStatus, 2, totalPrice);
+    }
+}